@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание BATCH бронирований: по одному через BookingService.create и одним вызовом createBatch.
+ * Результат - время на одно бронирование.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingBatchBenchmark {
+    private static final int BATCH = 100;
+
+    private BookingService bookingService;
+    private LocalDateTime freeFrom;
+    private int items;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItState state) {
+        bookingService = state.context.getBean(BookingService.class);
+        freeFrom = state.bookedFrom.plusDays(ShareItState.BOOKINGS_PER_ITEM + 1);
+        items = state.items;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int createOneByOne() {
+        int created = 0;
+        for (BookingReqDto bookingReqDto : nextRequests()) {
+            bookingService.create(bookingReqDto, ShareItState.BOOKER_ID);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResultDto> createBatch() {
+        return bookingService.createBatch(nextRequests(), ShareItState.BOOKER_ID);
+    }
+
+    private List<BookingReqDto> nextRequests() {
+        List<BookingReqDto> requests = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            next = next % items + 1;
+            requests.add(BookingReqDto.builder()
+                    .itemId(next)
+                    .start(freeFrom)
+                    .end(freeFrom.plusHours(2))
+                    .build());
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка свободного времени при создании бронирования: индекс в памяти,
+ * запрос exists к базе и полный путь BookingService.create до отказа.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingServiceBenchmark {
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private BookingAvailabilityIndex availabilityIndex;
+    private LocalDateTime bookedFrom;
+    private int items;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItState state) {
+        bookingService = state.context.getBean(BookingService.class);
+        bookingRepository = state.context.getBean(BookingRepository.class);
+        availabilityIndex = state.context.getBean(BookingAvailabilityIndex.class);
+        bookedFrom = state.bookedFrom;
+        items = state.items;
+    }
+
+    @Benchmark
+    public boolean indexOverlaps() {
+        LocalDateTime start = bookedFrom.plusDays(ShareItState.BOOKINGS_PER_ITEM / 2).plusHours(1);
+        return availabilityIndex.overlaps(nextItemId(), start, start.plusHours(2));
+    }
+
+    @Benchmark
+    public boolean databaseOverlapsFreeSlot() {
+        LocalDateTime start = bookedFrom.plusDays(ShareItState.BOOKINGS_PER_ITEM + 1);
+        return bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                nextItemId(), Status.APPROVED, start.plusHours(2), start);
+    }
+
+    @Benchmark
+    public Object createRejectedByOverlap() {
+        LocalDateTime start = bookedFrom.plusDays(ShareItState.BOOKINGS_PER_ITEM / 2).plusHours(1);
+        BookingReqDto bookingReqDto = BookingReqDto.builder()
+                .itemId(nextItemId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build();
+        try {
+            return bookingService.create(bookingReqDto, ShareItState.BOOKER_ID);
+        } catch (ItemNotAvailableException e) {
+            return e;
+        }
+    }
+
+    private long nextItemId() {
+        next = next % items + 1;
+        return next;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+    private int owners;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItState state) {
+        itemService = state.context.getBean(ItemService.class);
+        owners = Math.max(1, state.items / ShareItState.ITEMS_PER_OWNER);
+    }
+
+    @Benchmark
+    public List<ItemBookingDto> getByUserId() {
+        next = (next + 1) % owners;
+        return itemService.getByUserId(ShareItState.OWNER_ID + next);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchWord() {
+        next = (next + 1) % ShareItState.WORDS.length;
+        return itemService.search(ShareItState.WORDS[next], 0, 10);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchPrefix() {
+        next = (next + 1) % ShareItState.WORDS.length;
+        return itemService.search(ShareItState.WORDS[next].substring(0, 3), 0, 10);
+    }
+}
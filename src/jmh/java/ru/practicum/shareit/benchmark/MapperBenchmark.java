@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final BookingMapper bookingMapper = new BookingMapper(new UserMapper(), itemMapper);
+
+    private final User owner = new User(1L, "owner", "owner@email.com");
+    private final User booker = new User(2L, "booker", "booker@email.com");
+    private final ItemRequest request = new ItemRequest(1L, "desc", LocalDateTime.now(), booker);
+    private final Item item = new Item(1L, "Дрель", "Простая дрель", true, owner, request);
+    private final Booking booking = Booking.builder()
+            .id(1L)
+            .start(LocalDateTime.now())
+            .end(LocalDateTime.now().plusDays(1))
+            .item(item)
+            .booker(booker)
+            .status(Status.APPROVED)
+            .build();
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.bookingToDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toDto(item);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.LuceneItemSearchEngine;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Приложение на встроенной H2 в памяти с набором данных заданного размера.
+ * У каждой вещи BOOKINGS_PER_ITEM подтвержденных бронирований подряд по одному дню,
+ * вещи распределены между владельцами по ITEMS_PER_OWNER.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+    public static final int ITEMS_PER_OWNER = 50;
+    public static final int BOOKINGS_PER_ITEM = 10;
+    public static final long BOOKER_ID = 1L;
+    public static final long OWNER_ID = 2L;
+    public static final String[] WORDS = {"дрель", "молоток", "пила", "отвертка", "лестница",
+        "палатка", "велосипед", "самокат", "проектор", "перфоратор"};
+
+    @Param({"1000", "10000"})
+    public int items;
+
+    public ConfigurableApplicationContext context;
+    public LocalDateTime bookedFrom;
+
+    @Setup(Level.Trial)
+    public void start() {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "--shareit.booking.availability-index=true",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        bookedFrom = LocalDateTime.now().plusDays(1).withNano(0);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(BookingAvailabilityIndex.class).rebuild();
+        context.getBean(ItemBookingSummaryUpdater.class).rebuild();
+        context.getBean(LuceneItemSearchEngine.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        int owners = Math.max(1, items / ITEMS_PER_OWNER);
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= owners + 1; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@email.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        long bookingId = 1;
+        for (long id = 1; id <= items; id++) {
+            String word = WORDS[(int) (id % WORDS.length)];
+            itemRows.add(new Object[]{id, word + " " + id, "Описание: " + word + ", в хорошем состоянии",
+                OWNER_ID + (id - 1) % owners});
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = bookedFrom.plusDays(i);
+                bookingRows.add(new Object[]{bookingId++, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(23)), id, BOOKER_ID, Status.APPROVED.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) " +
+                "values (?, ?, ?, true, ?)", itemRows);
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookingRows);
+        jdbcTemplate.execute("alter sequence users_seq restart with " + (owners + 2));
+        jdbcTemplate.execute("alter sequence items_seq restart with " + (items + 1));
+        jdbcTemplate.execute("alter sequence bookings_seq restart with " + bookingId);
+    }
+}
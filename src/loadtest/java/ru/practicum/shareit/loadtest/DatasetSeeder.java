@@ -0,0 +1,200 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Status;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу синтетическими данными с явными id.
+ * Популярность вещей и число вещей у владельцев распределены по Ципфу, поэтому у популярных вещей
+ * длинная история бронирований. Бронирования одной вещи не пересекаются и покрывают
+ * окно от HISTORY назад до FUTURE вперед от текущего момента.
+ * На каждую вещь приходится BOOKINGS_PER_ITEM бронирований в среднем,
+ * пользователей в пять раз меньше, чем вещей, запросов - в десять.
+ */
+@Slf4j
+public class DatasetSeeder {
+    public static final String[] WORDS = {"дрель", "молоток", "пила", "отвертка", "лестница", "палатка",
+        "велосипед", "самокат", "проектор", "перфоратор", "шуруповерт", "гитара", "фотоаппарат", "байдарка"};
+    private static final String[] ADJECTIVES = {"новый", "старый", "мощный", "компактный", "детский",
+        "профессиональный", "складной", "аккумуляторный"};
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final int BATCH_SIZE = 5000;
+    private static final Duration HISTORY = Duration.ofDays(3 * 365);
+    private static final Duration FUTURE = Duration.ofDays(90);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final int items;
+    private final int users;
+    private final int requests;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, int items, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+        this.items = items;
+        this.users = usersFor(items);
+        this.requests = Math.max(1, items / 10);
+    }
+
+    public static int usersFor(int items) {
+        return Math.max(10, items / 5);
+    }
+
+    public void seed() {
+        long started = System.nanoTime();
+        clear();
+        seedUsers();
+        seedRequests();
+        int[] owners = seedItems();
+        seedBookingsAndComments(owners);
+        log.info("Тестовые данные созданы за {} с", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void clear() {
+        for (String table : List.of("item_booking_summary", "comments", "bookings", "items", "requests", "users")) {
+            jdbcTemplate.execute("delete from " + table);
+        }
+    }
+
+    private void seedUsers() {
+        BatchWriter writer = new BatchWriter("insert into users (id, name, email) values (?, ?, ?)");
+        for (long id = 1; id <= users; id++) {
+            writer.add(id, "user" + id, "user" + id + "@example.com");
+        }
+        writer.flush();
+        restartSequence("users", users + 1L);
+        log.info("Пользователей: {}", users);
+    }
+
+    private void seedRequests() {
+        BatchWriter writer = new BatchWriter(
+                "insert into requests (id, description, created_time, user_id) values (?, ?, ?, ?)");
+        for (long id = 1; id <= requests; id++) {
+            writer.add(id, "Нужен " + randomName(), Timestamp.valueOf(randomPast()), 1L + random.nextInt(users));
+        }
+        writer.flush();
+        restartSequence("requests", requests + 1L);
+        log.info("Запросов: {}", requests);
+    }
+
+    private int[] seedItems() {
+        ZipfSampler ownerSampler = new ZipfSampler(users, 1.0);
+        int[] owners = new int[items + 1];
+        BatchWriter writer = new BatchWriter("insert into items (id, name, description, available, owner_id, " +
+                "request_id) values (?, ?, ?, ?, ?, ?)");
+        for (int id = 1; id <= items; id++) {
+            owners[id] = ownerSampler.sample(random);
+            String name = randomName();
+            Long requestId = random.nextInt(5) == 0 ? 1L + random.nextInt(requests) : null;
+            writer.add((long) id, name + " " + id, "Сдаю " + name + " в аренду, состояние " + randomAdjective(),
+                    random.nextInt(10) != 0, (long) owners[id], requestId);
+        }
+        writer.flush();
+        restartSequence("items", items + 1L);
+        log.info("Вещей: {}", items);
+        return owners;
+    }
+
+    private void seedBookingsAndComments(int[] owners) {
+        ZipfSampler itemSampler = new ZipfSampler(items, 1.0);
+        int[] bookingsPerItem = new int[items + 1];
+        for (long i = 0; i < (long) items * BOOKINGS_PER_ITEM; i++) {
+            bookingsPerItem[itemSampler.sample(random)]++;
+        }
+
+        BatchWriter bookings = new BatchWriter("insert into bookings (id, start_date, end_date, item_id, " +
+                "booker_id, status) values (?, ?, ?, ?, ?, ?)");
+        BatchWriter comments = new BatchWriter("insert into comments (id, text, item_id, author_id, " +
+                "created_time) values (?, ?, ?, ?, ?)");
+        long bookingId = 0;
+        long commentId = 0;
+        LocalDateTime windowStart = now.minus(HISTORY);
+        long windowSeconds = HISTORY.plus(FUTURE).getSeconds();
+        for (int itemId = 1; itemId <= items; itemId++) {
+            int count = bookingsPerItem[itemId];
+            if (count == 0) {
+                continue;
+            }
+            long slot = windowSeconds / count;
+            for (int i = 0; i < count; i++) {
+                LocalDateTime start = windowStart.plusSeconds(slot * i + (long) (random.nextDouble() * slot / 2));
+                LocalDateTime end = start.plusSeconds(Math.max(60, Math.min(slot / 2,
+                        3600L * (1 + random.nextInt(72)))));
+                long bookerId = randomBooker(owners[itemId]);
+                Status status = randomStatus(start);
+                bookings.add(++bookingId, Timestamp.valueOf(start), Timestamp.valueOf(end), (long) itemId,
+                        bookerId, status.name());
+                if (status == Status.APPROVED && end.isBefore(now) && random.nextInt(5) == 0) {
+                    comments.add(++commentId, "Отличная вещь, " + randomAdjective(), (long) itemId, bookerId,
+                            Timestamp.valueOf(end.plusHours(1)));
+                }
+            }
+        }
+        bookings.flush();
+        comments.flush();
+        restartSequence("bookings", bookingId + 1);
+        restartSequence("comments", commentId + 1);
+        log.info("Бронирований: {}, комментариев: {}", bookingId, commentId);
+    }
+
+    private long randomBooker(int ownerId) {
+        long bookerId = 1L + random.nextInt(users);
+        return bookerId == ownerId ? bookerId % users + 1 : bookerId;
+    }
+
+    private Status randomStatus(LocalDateTime start) {
+        int roll = random.nextInt(10);
+        if (start.isAfter(now)) {
+            return roll < 4 ? Status.WAITING : roll < 9 ? Status.APPROVED : Status.REJECTED;
+        }
+        return roll == 0 ? Status.REJECTED : Status.APPROVED;
+    }
+
+    private String randomName() {
+        return randomAdjective() + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String randomAdjective() {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+    }
+
+    private LocalDateTime randomPast() {
+        return now.minusSeconds((long) (random.nextDouble() * HISTORY.getSeconds()));
+    }
+
+    private void restartSequence(String table, long next) {
+        jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + next);
+    }
+
+    private class BatchWriter {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        BatchWriter(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Смешанная нагрузка на контроллеры уже запущенного LoadTestServer.
+ * Параметры: --url (http://localhost:8080), --items (должно совпадать с loadtest.items сервера),
+ * --threads (16), --duration (60, секунды), --warmup (10, секунды),
+ * --endpoints (все) - через запятую части имен запросов, например search,bookings.
+ * Пользователи и вещи выбираются по Ципфу, в конце печатается пропускная способность
+ * и перцентили задержки по каждому виду запроса.
+ */
+public class LoadDriver {
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final String url;
+    private final ZipfSampler itemSampler;
+    private final ZipfSampler userSampler;
+    private volatile boolean recording;
+
+    public LoadDriver(String url, int items) {
+        this(url, items, List.of());
+    }
+
+    public LoadDriver(String url, int items, List<String> only) {
+        this.url = url;
+        this.itemSampler = new ZipfSampler(items, 1.0);
+        this.userSampler = new ZipfSampler(DatasetSeeder.usersFor(items), 1.0);
+        this.endpoints = List.of(
+                new Endpoint("GET /items/{id}", 30, () -> get("/items/" + item(), user())),
+                new Endpoint("GET /items/search", 25,
+                        () -> get("/items/search?from=0&size=10&text=" + searchText(), user())),
+                new Endpoint("GET /items", 10, () -> get("/items", user())),
+                new Endpoint("GET /bookings", 10, () -> get("/bookings?state=" + state(), user())),
+                new Endpoint("GET /bookings/owner", 10, () -> get("/bookings/owner?state=" + state(), user())),
+                new Endpoint("GET /requests/all", 5, () -> get("/requests/all?from=0&size=20", user())),
+                new Endpoint("GET /users/{id}", 3, () -> get("/users/" + user(), user())),
+                new Endpoint("POST /bookings", 7, this::createBooking)).stream()
+                .filter(endpoint -> only.isEmpty() || only.stream().anyMatch(endpoint.getName()::contains))
+                .collect(Collectors.toList());
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Нет запросов, подходящих под " + only);
+        }
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::getWeight).sum();
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint.getName(), new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        LoadDriver driver = new LoadDriver(options.getOrDefault("url", "http://localhost:8080"),
+                Integer.parseInt(options.getOrDefault("items", "10000")), endpoints(options));
+        driver.run(Integer.parseInt(options.getOrDefault("threads", "16")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("duration", "60")));
+    }
+
+    public void run(int threads, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    execute(pick());
+                }
+            });
+        }
+        executor.shutdown();
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recording = true;
+        executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        report(durationSeconds);
+    }
+
+    private void execute(Endpoint endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint.getName());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(endpoint.getRequest().get().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (recording) {
+                endpointStats.record(System.nanoTime() - started, response.statusCode());
+            }
+        } catch (IOException e) {
+            if (recording) {
+                endpointStats.ioErrors.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(int durationSeconds) {
+        System.out.printf("%-22s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n", "endpoint", "requests", "rps",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "5xx", "io");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latency;
+            long count = histogram.getTotalCount();
+            System.out.printf("%-22s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n", entry.getKey(), count,
+                    (double) count / durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()), entry.getValue().clientErrors.sum(),
+                    entry.getValue().serverErrors.sum(), entry.getValue().ioErrors.sum());
+        }
+    }
+
+    private Endpoint pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.getWeight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(0);
+    }
+
+    private HttpRequest.Builder get(String path, int userId) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET();
+    }
+
+    private HttpRequest.Builder createBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + ThreadLocalRandom.current().nextInt(60))
+                .withNano(0);
+        String body = String.format("{\"itemId\": %d, \"start\": \"%s\", \"end\": \"%s\"}",
+                item(), start, start.plusHours(1 + ThreadLocalRandom.current().nextInt(48)));
+        return HttpRequest.newBuilder(URI.create(url + "/bookings"))
+                .header("X-Sharer-User-Id", String.valueOf(user()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private int item() {
+        return itemSampler.sample(ThreadLocalRandom.current());
+    }
+
+    private int user() {
+        return userSampler.sample(ThreadLocalRandom.current());
+    }
+
+    private String searchText() {
+        String word = DatasetSeeder.WORDS[ThreadLocalRandom.current().nextInt(DatasetSeeder.WORDS.length)];
+        return URLEncoder.encode(word.substring(0, 3 + ThreadLocalRandom.current().nextInt(word.length() - 2)),
+                StandardCharsets.UTF_8);
+    }
+
+    private String state() {
+        String[] states = {"ALL", "ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+        return states[ThreadLocalRandom.current().nextInt(states.length)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static List<String> endpoints(Map<String, String> options) {
+        String value = options.getOrDefault("endpoints", "");
+        return value.isBlank() ? List.of() : List.of(value.split(","));
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Supplier<HttpRequest.Builder> request;
+    }
+
+    private static class EndpointStats {
+        private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder ioErrors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+            if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            }
+        }
+    }
+}
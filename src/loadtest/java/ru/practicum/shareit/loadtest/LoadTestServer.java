@@ -0,0 +1,51 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.LuceneItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запускает приложение и заполняет базу через DatasetSeeder.
+ * Параметры: --loadtest.items (10000, 0 - не заполнять), --loadtest.seed (42),
+ * остальные аргументы передаются Spring, например --spring.profiles.active=postgres.
+ */
+@Slf4j
+public class LoadTestServer {
+    private static final List<String> QUIET_LOGGING = List.of(
+            "--logging.level.org.springframework.orm.jpa=WARN",
+            "--logging.level.org.springframework.transaction=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+    public static void main(String[] args) {
+        start(args);
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(QUIET_LOGGING);
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = SpringApplication.run(ShareItApp.class,
+                arguments.toArray(new String[0]));
+
+        Environment environment = context.getEnvironment();
+        int items = environment.getProperty("loadtest.items", Integer.class, 10_000);
+        if (items > 0) {
+            new DatasetSeeder(context.getBean(JdbcTemplate.class), items,
+                    environment.getProperty("loadtest.seed", Long.class, 42L)).seed();
+            context.getBean(BookingAvailabilityIndex.class).rebuild();
+            context.getBean(ItemBookingSummaryUpdater.class).rebuild();
+            context.getBeanProvider(LuceneItemSearchEngine.class).ifAvailable(LuceneItemSearchEngine::rebuild);
+        }
+        log.info("Сервер нагрузочного теста готов, вещей: {}", items);
+        return context;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сравнивает пропускную способность обработки запросов в потоках платформы и в виртуальных потоках
+ * (shareit.threads.virtual). Для каждого режима поднимает LoadTestServer с одинаковыми данными
+ * и гоняет LoadDriver по запросам бронирований и поиска.
+ * Параметры: --modes (platform,virtual), --items (10000), --threads (256), --duration (30), --warmup (10),
+ * --endpoints (search,bookings), --pool (10, spring.datasource.hikari.maximum-pool-size),
+ * остальные аргументы передаются серверу. Виртуальные потоки доступны только на JDK 21+.
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = LoadDriver.parse(args);
+        String items = options.getOrDefault("items", "10000");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "256"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        options.putIfAbsent("endpoints", "search,bookings");
+
+        for (String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+            ConfigurableApplicationContext context;
+            try {
+                context = LoadTestServer.start(concat(args,
+                        "--loadtest.items=" + items,
+                        "--shareit.threads.virtual=" + "virtual".equals(mode),
+                        "--server.tomcat.threads.max=" + threads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + options.getOrDefault("pool", "10")));
+            } catch (RuntimeException e) {
+                System.out.printf("%nРежим %s недоступен: %s%n", mode, e.getMessage());
+                continue;
+            }
+            try {
+                System.out.printf("%nРежим: %s, клиентских потоков: %d%n", mode, threads);
+                new LoadDriver("http://localhost:" + context.getEnvironment().getProperty("local.server.port"),
+                        Integer.parseInt(items), LoadDriver.endpoints(options)).run(threads, warmup, duration);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static String[] concat(String[] args, String... extra) {
+        List<String> arguments = new ArrayList<>(List.of(extra));
+        arguments.addAll(List.of(args));
+        return arguments.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Random;
+
+/**
+ * Ранги 1..n с вероятностью, пропорциональной 1 / rank^s.
+ * Используется обратная функция непрерывного приближения распределения, без таблиц на n элементов.
+ */
+public class ZipfSampler {
+    private final int n;
+    private final double s;
+
+    public ZipfSampler(int n, double s) {
+        this.n = n;
+        this.s = s;
+    }
+
+    public int sample(Random random) {
+        double u = random.nextDouble();
+        double x;
+        if (Math.abs(s - 1) < 1e-9) {
+            x = Math.exp(u * Math.log(n + 1.0));
+        } else {
+            x = Math.pow(u * (Math.pow(n + 1.0, 1 - s) - 1) + 1, 1 / (1 - s));
+        }
+        return (int) Math.min(n, Math.max(1, (long) x));
+    }
+}
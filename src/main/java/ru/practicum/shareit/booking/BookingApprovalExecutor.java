@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Очередь подтверждений бронирований (shareit.booking.approval.mode=queued).
+ * Вещь закреплена за одним из shareit.booking.approval.stripes однопоточных исполнителей,
+ * поэтому подтверждения одной вещи выполняются строго по очереди, а разных вещей - параллельно,
+ * без блокировок строк в БД. Транзакцию открывает сама задача (через ItemLock).
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.approval.mode", havingValue = "queued")
+public class BookingApprovalExecutor {
+    private final ExecutorService[] stripes;
+
+    public BookingApprovalExecutor(@Value("${shareit.booking.approval.stripes:16}") int stripes) {
+        this.stripes = new ExecutorService[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = Executors.newSingleThreadExecutor(
+                    new CustomizableThreadFactory("booking-approval-" + i + "-"));
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Long itemId, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, stripes[Math.floorMod(itemId.hashCode(), stripes.length)]);
+    }
+
+    /**
+     * Ставит задачу в очередь вещи и ждет результата, исключения задачи пробрасываются как есть.
+     */
+    public <T> T execute(Long itemId, Supplier<T> task) {
+        try {
+            return submit(itemId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+}
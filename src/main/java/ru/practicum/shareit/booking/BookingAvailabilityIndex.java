@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс подтвержденных (APPROVED) периодов бронирования по вещам.
+ * Для каждой вещи хранит объединение занятых интервалов в TreeMap,
+ * поэтому проверка пересечения выполняется за O(log n).
+ * Включается shareit.booking.availability-index=true и только для одного экземпляра приложения:
+ * тогда индекс считается источником истины, и при создании и подтверждении бронирований
+ * запрос пересечения к БД не выполняется. При нескольких экземплярах каждый видит только свои
+ * подтверждения, поэтому по умолчанию индекс выключен и пересечение проверяется запросом к БД.
+ */
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking.availability-index:false}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        timelines.clear();
+        int count = 0;
+        for (BookingPeriod period : bookingRepository.findAllPeriodsByStatus(Status.APPROVED)) {
+            add(period);
+            count++;
+        }
+        log.info("Индекс бронирований построен, подтвержденных бронирований: {}", count);
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.overlaps(start, end);
+    }
+
+    public void add(Booking booking) {
+        add(new BookingPeriod(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    /**
+     * Атомарно для вещи проверяет пересечение и добавляет период.
+     * Возвращает false, если время уже занято. Вызванный в транзакции, снимает период,
+     * если она откатится, в том числе при ошибке на фиксации.
+     */
+    public boolean tryAdd(Booking booking) {
+        BookingPeriod period = new BookingPeriod(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                booking.getEnd());
+        if (!timelines.computeIfAbsent(period.getItemId(), id -> new ItemTimeline()).tryAdd(period)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(period);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public void remove(Booking booking) {
+        remove(new BookingPeriod(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    /**
+     * Снимает периоды бронирований и вещей, удаленных каскадом в базе, после фиксации транзакции удаления.
+     */
+    public void onDeleted(Collection<BookingPeriod> periods, Collection<Long> itemIds) {
+        if (!enabled) {
+            return;
+        }
+        Runnable eviction = () -> {
+            periods.forEach(this::remove);
+            itemIds.forEach(timelines::remove);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private void remove(BookingPeriod period) {
+        ItemTimeline timeline = timelines.get(period.getItemId());
+        if (timeline != null) {
+            timeline.remove(period.getBookingId());
+        }
+    }
+
+    private void add(BookingPeriod period) {
+        timelines.computeIfAbsent(period.getItemId(), id -> new ItemTimeline()).add(period);
+    }
+
+    private static class ItemTimeline {
+        private final Map<Long, BookingPeriod> periods = new HashMap<>();
+        private final TreeMap<LocalDateTime, LocalDateTime> merged = new TreeMap<>();
+
+        synchronized void add(BookingPeriod period) {
+            if (periods.put(period.getBookingId(), period) == null) {
+                merge(period.getStart(), period.getEnd());
+            } else {
+                rebuildMerged();
+            }
+        }
+
+        synchronized boolean tryAdd(BookingPeriod period) {
+            if (overlaps(period.getStart(), period.getEnd())) {
+                return false;
+            }
+            add(period);
+            return true;
+        }
+
+        synchronized void remove(Long bookingId) {
+            if (periods.remove(bookingId) != null) {
+                rebuildMerged();
+            }
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = merged.floorEntry(end);
+            return candidate != null && !candidate.getValue().isBefore(start);
+        }
+
+        private void rebuildMerged() {
+            merged.clear();
+            for (BookingPeriod period : periods.values()) {
+                merge(period.getStart(), period.getEnd());
+            }
+        }
+
+        private void merge(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> floor = merged.floorEntry(start);
+            if (floor != null && !floor.getValue().isBefore(start)) {
+                start = floor.getKey();
+                end = max(end, floor.getValue());
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> next = merged.ceilingEntry(start);
+            while (next != null && !next.getKey().isAfter(end)) {
+                end = max(end, next.getValue());
+                merged.remove(next.getKey());
+                next = merged.ceilingEntry(start);
+            }
+            merged.put(start, end);
+        }
+
+        private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+            return first.isAfter(second) ? first : second;
+        }
+    }
+}
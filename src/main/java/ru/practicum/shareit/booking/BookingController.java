@@ -2,8 +2,10 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 import ru.practicum.shareit.exception.BookingException;
@@ -18,27 +20,45 @@ import java.util.List;
 @Slf4j
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingService bookingService;
 
     @PostMapping
     public BookingDto create(@RequestBody @Valid BookingReqDto bookingReqDto,
                              @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Бронирование вещи id: " + bookingReqDto.getItemId() + ", пользователем id: " + userId
-                + ".\nВремя старта/конца: " + bookingReqDto.getStart() + "/" + bookingReqDto.getEnd());
+        log.info("Бронирование вещи id: {}, пользователем id: {}.\nВремя старта/конца: {}/{}",
+                bookingReqDto.getItemId(), userId, bookingReqDto.getStart(), bookingReqDto.getEnd());
         if (bookingReqDto.getStart().isAfter(bookingReqDto.getEnd()) ||
         bookingReqDto.getStart().equals(bookingReqDto.getEnd())) {
             throw new BookingException("Время старта должно быть раньше времени окончания");
         }
         BookingDto bookingDto = bookingService.create(bookingReqDto, userId);
-        log.info("Бронирование завершено с id: " + bookingDto.getId());
+        log.info("Бронирование завершено с id: {}", bookingDto.getId());
         return bookingDto;
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestBody List<BookingReqDto> bookingReqDtos,
+                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пакетное бронирование, записей: {}, пользователем id: {}", bookingReqDtos.size(), userId);
+        if (bookingReqDtos.size() > MAX_BATCH_SIZE) {
+            throw new BookingException("Максимальный размер пакета: " + MAX_BATCH_SIZE);
+        }
+        if (bookingReqDtos.contains(null)) {
+            throw new BookingException("Пустая запись в пакете с индексом: " + bookingReqDtos.indexOf(null));
+        }
+        List<BookingBatchResultDto> results = bookingService.createBatch(bookingReqDtos, userId);
+        log.info("Пакетное бронирование завершено");
+        return results;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto update(@PathVariable Long bookingId,
                              @RequestHeader("X-Sharer-User-Id") Long userId,
                              @RequestParam Boolean approved) {
-        log.info("Обновление статуса бронирования id " + bookingId + ", пользователем id: " + userId);
+        log.info("Обновление статуса бронирования id {}, пользователем id: {}", bookingId, userId);
         BookingDto bookingDto = bookingService.update(bookingId, userId, approved);
         log.info("Обновление завершено");
         return bookingDto;
@@ -51,25 +71,46 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(name = "state",
-                                                   required = false,
-                                                   defaultValue = "ALL") State state,
-                                           @RequestParam(name = "from",
-                                                   defaultValue = "0") @Min(0)  Integer from,
-                                           @RequestParam(name = "size",
-                                                   defaultValue = "10") @Min(1) Integer size) {
-        return bookingService.getAllByBooker(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(name = "state",
+                                                                   required = false,
+                                                                   defaultValue = "ALL") State state,
+                                                           @RequestParam(name = "from",
+                                                                   defaultValue = "0") @Min(0) Integer from,
+                                                           @RequestParam(name = "size",
+                                                                   defaultValue = "10") @Min(1) Integer size,
+                                                           @RequestParam(name = "cursor",
+                                                                   required = false) String cursor) {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllByBooker(userId, state, from, size)
+                : bookingService.getAllByBooker(userId, state, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public  List<BookingDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(name = "state",
-                                                   required = false,
-                                                   defaultValue = "ALL") State state,
-                                           @RequestParam(name = "from", defaultValue = "0") @Min(0)  Integer from,
-                                           @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
-        return bookingService.getAllByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam(name = "state",
+                                                                  required = false,
+                                                                  defaultValue = "ALL") State state,
+                                                          @RequestParam(name = "from",
+                                                                  defaultValue = "0") @Min(0) Integer from,
+                                                          @RequestParam(name = "size",
+                                                                  defaultValue = "10") @Min(1) Integer size,
+                                                          @RequestParam(name = "cursor",
+                                                                  required = false) String cursor) {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllByOwner(userId, state, from, size)
+                : bookingService.getAllByOwner(userId, state, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER,
+                    BookingCursor.after(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 
 }
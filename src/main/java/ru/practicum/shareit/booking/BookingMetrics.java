@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счетчики отказов в бронировании, метрика bookings.rejected с тегом reason.
+ */
+@Component
+public class BookingMetrics {
+    public static final String REJECTED = "bookings.rejected";
+
+    private final Counter byOwner;
+    private final Counter notAvailable;
+    private final Counter overlap;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.byOwner = rejected(registry, "by_owner");
+        this.notAvailable = rejected(registry, "not_available");
+        this.overlap = rejected(registry, "overlap");
+    }
+
+    public void rejectedByOwner() {
+        byOwner.increment();
+    }
+
+    public void rejectedNotAvailable() {
+        notAvailable.increment();
+    }
+
+    public void rejectedOverlap() {
+        overlap.increment();
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder(REJECTED)
+                .description("Отказы в бронировании по причине")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingPeriod {
+    private Long bookingId;
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
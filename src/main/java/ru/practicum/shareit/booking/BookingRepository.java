@@ -1,101 +1,161 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String LISTING_SELECT = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, " +
+            "bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Booking as b " +
+            "join b.booker as bk " +
+            "join b.item as i ";
+
+    /*
+     * Условие b.start <= seekStart дублирует keyset-предикат, но без него H2 не делает
+     * range seek по (booker_id, start_date desc, id desc) и фильтрует все бронирования пользователя.
+     */
+
+    @Override
+    @EntityGraph("Booking.withItemAndBooker")
+    Optional<Booking> findById(Long id);
 
     List<Booking> findAllByItem_Id(Long itemId);
 
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllByBooker(Long userId, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 and ?2 between b.start_date and b.end_date " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllCurrentByBooker(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 and b.end_date < ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllPastByBooker(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 and b.start_date > ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllFutureByBooker(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 and b.status = 'WAITING' and b.start_date > ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllWaitingByBooker(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where b.booker_id = ?1 and b.status = 'REJECTED' " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllRejectedByBooker(Long userId, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllByOwner(Long userId, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 and ?2 between b.start_date and b.end_date " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllCurrentByOwner(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 and b.end_date < ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllPastByOwner(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 and b.start_date > ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllFutureByOwner(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 and b.status = 'WAITING' and b.start_date > ?2 " +
-            "order by b.start_date desc",
-            nativeQuery = true)
-    List<Booking> findAllWaitingByOwner(Long userId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "select b.* from bookings as b " +
-            "join items as i on i.id = b.item_id " +
-            "where i.owner_id = ?1 and b.status = 'REJECTED' " +
-            "order by b.start_date desc",
+    @Query("select b.item.id from Booking as b where b.id = ?1")
+    Optional<Long> findItemIdById(Long bookingId);
+
+    @Query("select new ru.practicum.shareit.booking.BookingPeriod(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.status = ?1")
+    List<BookingPeriod> findAllPeriodsByStatus(Status status);
+
+    @Query("select new ru.practicum.shareit.booking.BookingPeriod(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start <= ?4 and b.end >= ?3")
+    List<BookingPeriod> findAllPeriodsByItemIdsAndStatus(Collection<Long> itemIds, Status status,
+                                                         LocalDateTime from, LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.BookingPeriod(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.booker.id = ?1 and b.status = ?2")
+    List<BookingPeriod> findAllPeriodsByBookerIdAndStatus(Long bookerId, Status status);
+
+    boolean existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(Long itemId, Status status,
+                                                                                 LocalDateTime end,
+                                                                                 LocalDateTime start);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByBooker(Long userId,
+                                     LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 and ?2 between b.start and b.end " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllCurrentByBooker(Long userId, LocalDateTime now,
+                                            LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 and b.end < ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllPastByBooker(Long userId, LocalDateTime now,
+                                         LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllFutureByBooker(Long userId, LocalDateTime now,
+                                           LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 and b.status = ru.practicum.shareit.booking.Status.WAITING and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllWaitingByBooker(Long userId, LocalDateTime now,
+                                            LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where b.booker.id = ?1 and b.status = ru.practicum.shareit.booking.Status.REJECTED " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllRejectedByBooker(Long userId,
+                                             LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByOwner(Long userId,
+                                    LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 and ?2 between b.start and b.end " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllCurrentByOwner(Long userId, LocalDateTime now,
+                                           LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 and b.end < ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllPastByOwner(Long userId, LocalDateTime now,
+                                        LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllFutureByOwner(Long userId, LocalDateTime now,
+                                          LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 and b.status = ru.practicum.shareit.booking.Status.WAITING and b.start > ?2 " +
+            "and b.start <= ?3 and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllWaitingByOwner(Long userId, LocalDateTime now,
+                                           LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    @Query(LISTING_SELECT +
+            "where i.owner.id = ?1 and b.status = ru.practicum.shareit.booking.Status.REJECTED " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllRejectedByOwner(Long userId,
+                                            LocalDateTime seekStart, Long seekId, Pageable pageable);
+
+    /**
+     * Последнее - начавшееся не позже now с самым поздним окончанием,
+     * ближайшее - с самым ранним началом после now. Те же правила в ItemBookingSummaryUpdater.onApproved
+     * и ItemBookingSummaryRepository.insertFromApprovedBookings.
+     */
+    @Query(value = "select r.id, r.start_date, r.end_date, r.item_id, r.booker_id, r.status, r.version " +
+            "from (select b.*, row_number() over (" +
+            "partition by b.item_id, case when b.start_date <= ?2 then 0 else 1 end " +
+            "order by case when b.start_date <= ?2 then b.end_date end desc, " +
+            "case when b.start_date <= ?2 then b.id end desc, " +
+            "b.start_date, b.id) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED') as r " +
+            "where r.rn = 1",
             nativeQuery = true)
-    List<Booking> findAllRejectedByOwner(Long userId, Pageable pageable);
+    List<Booking> findLastAndNextApprovedByItemIds(Collection<Long> itemIds, LocalDateTime now);
 
     @Query(value = "select b.* from bookings as b " +
             "where b.booker_id = ?1 " +
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 
@@ -9,11 +10,20 @@ public interface BookingService {
 
     BookingDto create(BookingReqDto bookingReqDto, Long userId);
 
+    /**
+     * Создает бронирования одной транзакцией, ошибки возвращаются по каждой записи отдельно.
+     */
+    List<BookingBatchResultDto> createBatch(List<BookingReqDto> bookingReqDtos, Long userId);
+
     BookingDto update(Long bookingId, Long userId, Boolean approved);
 
     BookingDto getById(Long bookingId, Long userId);
 
     List<BookingDto> getAllByBooker(Long userId, State state, Integer from, Integer size);
 
+    List<BookingDto> getAllByBooker(Long userId, State state, BookingCursor cursor, Integer size);
+
     List<BookingDto> getAllByOwner(Long userId, State state, Integer from, Integer size);
+
+    List<BookingDto> getAllByOwner(Long userId, State state, BookingCursor cursor, Integer size);
 }
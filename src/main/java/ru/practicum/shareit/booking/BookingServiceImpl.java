@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 import ru.practicum.shareit.exception.BookingByOwnerException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -16,9 +21,17 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +40,12 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingMetrics bookingMetrics;
+    private final ObjectProvider<BookingApprovalExecutor> approvalExecutor;
+    private final ItemLock itemLock;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final Validator validator;
 
     @Override
     @Transactional
@@ -36,16 +55,18 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingReqDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена с id: " + bookingReqDto.getItemId()));
 
-        if (item.getOwner().equals(user)) {
+        if (item.getOwner().getId().equals(user.getId())) {
+            bookingMetrics.rejectedByOwner();
             throw new BookingByOwnerException("Владелец не может бронировать свои вещи");
         }
 
         if (!item.getAvailable()) {
+            bookingMetrics.rejectedNotAvailable();
             throw new ItemNotAvailableException("Вещь недоступна для бронирования");
         }
 
         if (!checkAvailableTimeForBooking(item.getId(), bookingReqDto.getStart(), bookingReqDto.getEnd())) {
-            throw new ItemNotAvailableException("Время для бронирования уже занято");
+            throw overlap();
         }
 
         Booking newBooking = bookingMapper.bookingReqDtoToBooking(bookingReqDto);
@@ -56,43 +77,74 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.bookingToDto(bookingRepository.save(newBooking));
     }
 
+    /**
+     * Новые бронирования, как и в create, имеют статус WAITING, поэтому блокировка вещей не нужна:
+     * пересечение перепроверяется при подтверждении.
+     */
     @Override
-    public BookingDto update(Long bookingId, Long userId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование не найдено с таким id" + bookingId));
-
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(List<BookingReqDto> bookingReqDtos, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
-
-        if (booking.getStatus().equals(Status.APPROVED)) {
-            throw new BookingException("Статус бронирования уже подтвержден");
+        Set<Long> itemIds = bookingReqDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingReqDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingPeriod>> approvedPeriods = findApprovedPeriods(bookingReqDtos, items.keySet());
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingReqDtos.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingReqDtos.size(); i++) {
+            BookingReqDto bookingReqDto = bookingReqDtos.get(i);
+            String error = checkBatchEntry(bookingReqDto, user, items, approvedPeriods);
+            if (error != null) {
+                results[i] = BookingBatchResultDto.builder().index(i).error(error).build();
+                continue;
+            }
+            Booking booking = bookingMapper.bookingReqDtoToBooking(bookingReqDto);
+            booking.setBooker(user);
+            booking.setItem(items.get(bookingReqDto.getItemId()));
+            booking.setStatus(Status.WAITING);
+            accepted.add(booking);
+            acceptedIndexes.add(i);
         }
 
-        if (!booking.getItem().getOwner().getId().equals(user.getId())) {
-            throw new BookingByOwnerException("Пользователь не является владельцем вещи");
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            results[acceptedIndexes.get(i)] = BookingBatchResultDto.builder()
+                    .index(acceptedIndexes.get(i))
+                    .booking(bookingMapper.bookingToDto(booking))
+                    .build();
         }
+        return Arrays.asList(results);
+    }
 
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-            bookingRepository.save(booking);
-        } else {
-            booking.setStatus(Status.REJECTED);
-            bookingRepository.save(booking);
+    @Override
+    public BookingDto update(Long bookingId, Long userId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено с таким id" + bookingId));
+        BookingApprovalExecutor executor = approvalExecutor.getIfAvailable();
+        if (executor == null) {
+            return itemLock.withLock(itemId, () -> applyUpdate(bookingId, userId, approved));
         }
-
-        return bookingMapper.bookingToDto(booking);
+        return executor.execute(itemId,
+                () -> itemLock.withLock(itemId, () -> applyUpdate(bookingId, userId, approved)));
     }
 
     @Override
     public BookingDto getById(Long bookingId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено с таким id: " + bookingId));
 
-        if (!booking.getBooker().getId().equals(user.getId()) &&
-        !booking.getItem().getOwner().getId().equals(user.getId())) {
+        if (!booking.getBooker().getId().equals(userId) &&
+        !booking.getItem().getOwner().getId().equals(userId)) {
             throw new BookingByOwnerException("Пользователь не является арендатором или владельцем вещи");
         }
 
@@ -101,91 +153,237 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllByBooker(Long userId, State state, Integer from, Integer size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        return findAllByBooker(userId, state, BookingCursor.FIRST, OffsetPageRequest.of(from, size));
+    }
+
+    @Override
+    public List<BookingDto> getAllByBooker(Long userId, State state, BookingCursor cursor, Integer size) {
+        return findAllByBooker(userId, state, cursor, PageRequest.of(0, size));
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwner(Long userId, State state, Integer from, Integer size) {
+        return findAllByOwner(userId, state, BookingCursor.FIRST, OffsetPageRequest.of(from, size));
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwner(Long userId, State state, BookingCursor cursor, Integer size) {
+        return findAllByOwner(userId, state, cursor, PageRequest.of(0, size));
+    }
+
+    private List<BookingDto> findAllByBooker(Long userId, State state, BookingCursor cursor, Pageable pageable) {
+        checkUserExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        LocalDateTime seekStart = cursor.getStart();
+        Long seekId = cursor.getId();
 
         switch (state) {
             case ALL:
-                return mapToBookingDtoList(bookingRepository.findAllByBooker(user.getId(), pageable));
+                return bookingRepository
+                        .findAllByBooker(userId, seekStart, seekId, pageable);
             case CURRENT:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllCurrentByBooker(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllCurrentByBooker(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case PAST:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllPastByBooker(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllPastByBooker(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case FUTURE:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllFutureByBooker(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllFutureByBooker(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case WAITING:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllWaitingByBooker(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllWaitingByBooker(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case REJECTED:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllRejectedByBooker(userId, pageable));
+                return bookingRepository
+                        .findAllRejectedByBooker(userId, seekStart, seekId, pageable);
             default:
                 throw new BookingException("Нераспознаный параметр запроса");
         }
     }
 
-    @Override
-    public List<BookingDto> getAllByOwner(Long userId, State state, Integer from, Integer size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+    private List<BookingDto> findAllByOwner(Long userId, State state, BookingCursor cursor, Pageable pageable) {
+        checkUserExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        LocalDateTime seekStart = cursor.getStart();
+        Long seekId = cursor.getId();
 
         switch (state) {
             case ALL:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllByOwner(user.getId(), pageable));
+                return bookingRepository
+                        .findAllByOwner(userId, seekStart, seekId, pageable);
             case CURRENT:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllCurrentByOwner(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllCurrentByOwner(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case PAST:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllPastByOwner(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllPastByOwner(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case FUTURE:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllFutureByOwner(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllFutureByOwner(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case WAITING:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllWaitingByOwner(userId, LocalDateTime.now(), pageable));
+                return bookingRepository
+                        .findAllWaitingByOwner(userId, LocalDateTime.now(), seekStart, seekId, pageable);
             case REJECTED:
-                return mapToBookingDtoList(bookingRepository
-                        .findAllRejectedByOwner(userId, pageable));
+                return bookingRepository
+                        .findAllRejectedByOwner(userId, seekStart, seekId, pageable);
             default:
                 throw new BookingException("Нераспознаный параметр запроса");
 
         }
     }
 
-    private Boolean checkAvailableTimeForBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
-        List<Booking> bookingsOfItem = bookingRepository.findAllByItem_Id(itemId);
+    /**
+     * Подтвержденные периоды всех запрошенных вещей в общем окне запроса - одним запросом.
+     */
+    private Map<Long, List<BookingPeriod>> findApprovedPeriods(List<BookingReqDto> bookingReqDtos,
+                                                               Set<Long> itemIds) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (BookingReqDto bookingReqDto : bookingReqDtos) {
+            if (bookingReqDto == null) {
+                continue;
+            }
+            if (bookingReqDto.getStart() != null && (from == null || bookingReqDto.getStart().isBefore(from))) {
+                from = bookingReqDto.getStart();
+            }
+            if (bookingReqDto.getEnd() != null && (to == null || bookingReqDto.getEnd().isAfter(to))) {
+                to = bookingReqDto.getEnd();
+            }
+        }
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return Map.of();
+        }
+        return bookingRepository.findAllPeriodsByItemIdsAndStatus(itemIds, Status.APPROVED, from, to).stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+    }
+
+    private String checkBatchEntry(BookingReqDto bookingReqDto, User user, Map<Long, Item> items,
+                                   Map<Long, List<BookingPeriod>> approvedPeriods) {
+        if (bookingReqDto == null) {
+            return "Пустая запись";
+        }
+        Set<ConstraintViolation<BookingReqDto>> violations = validator.validate(bookingReqDto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!bookingReqDto.getStart().isBefore(bookingReqDto.getEnd())) {
+            return "Время старта должно быть раньше времени окончания";
+        }
+        Item item = items.get(bookingReqDto.getItemId());
+        if (item == null) {
+            return "Вещь не найдена с id: " + bookingReqDto.getItemId();
+        }
+        if (item.getOwner().getId().equals(user.getId())) {
+            bookingMetrics.rejectedByOwner();
+            return "Владелец не может бронировать свои вещи";
+        }
+        if (!item.getAvailable()) {
+            bookingMetrics.rejectedNotAvailable();
+            return "Вещь недоступна для бронирования";
+        }
+        for (BookingPeriod period : approvedPeriods.getOrDefault(item.getId(), List.of())) {
+            if (!period.getStart().isAfter(bookingReqDto.getEnd())
+                    && !period.getEnd().isBefore(bookingReqDto.getStart())) {
+                bookingMetrics.rejectedOverlap();
+                return "Время для бронирования уже занято";
+            }
+        }
+        return null;
+    }
 
-        System.out.println("\n" + bookingsOfItem + "\n");
+    private BookingDto applyUpdate(Long bookingId, Long userId, Boolean approved) {
+        Booking booking = findBooking(bookingId);
+
+        checkUserExists(userId);
+
+        if (booking.getStatus().equals(Status.APPROVED)) {
+            throw new BookingException("Статус бронирования уже подтвержден");
+        }
+
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            throw new BookingByOwnerException("Пользователь не является владельцем вещи");
+        }
 
-        if (bookingsOfItem.size() == 0) {
-            return true;
+        if (approved) {
+            approve(booking);
+        } else {
+            booking.setStatus(Status.REJECTED);
+            saveVersioned(booking);
+            if (availabilityIndex.isEnabled()) {
+                availabilityIndex.remove(booking);
+            }
         }
 
-        for (Booking booking : bookingsOfItem) {
-            if (booking.getStatus().equals(Status.APPROVED) &&
-                    !(start.isAfter(booking.getEnd()) || end.isBefore(booking.getStart()))) {
-                return false;
+        return bookingMapper.bookingToDto(booking);
+    }
+
+    /**
+     * Вызывается под ItemLock вещи. С включенным индексом период резервируется в нем атомарно
+     * и снимается сразу, если сохранение не удалось, или индексом при откате транзакции;
+     * без индекса пересечение проверяется по БД.
+     */
+    private void approve(Booking booking) {
+        boolean indexed = availabilityIndex.isEnabled();
+        if (indexed && !availabilityIndex.tryAdd(booking)) {
+            throw overlap();
+        }
+        try {
+            if (!indexed && bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                    booking.getItem().getId(), Status.APPROVED, booking.getEnd(), booking.getStart())) {
+                throw overlap();
             }
+            booking.setStatus(Status.APPROVED);
+            saveVersioned(booking);
+            summaryUpdater.onApproved(booking);
+        } catch (DataIntegrityViolationException e) {
+            releaseIndexed(booking, indexed);
+            throw overlap();
+        } catch (RuntimeException e) {
+            releaseIndexed(booking, indexed);
+            throw e;
+        }
+    }
+
+    private void releaseIndexed(Booking booking, boolean indexed) {
+        if (indexed) {
+            availabilityIndex.remove(booking);
+        }
+    }
+
+    private void saveVersioned(Booking booking) {
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (OptimisticLockingFailureException e) {
+            throw new BookingConflictException("Бронирование изменено параллельным запросом, id: "
+                    + booking.getId());
         }
+    }
 
-        return true;
+    private ItemNotAvailableException overlap() {
+        bookingMetrics.rejectedOverlap();
+        return new ItemNotAvailableException("Время для бронирования уже занято");
     }
 
-    private List<BookingDto> mapToBookingDtoList(List<Booking> bookings) {
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        for (Booking booking : bookings) {
-            bookingDtoList.add(bookingMapper.bookingToDto(booking));
+    private Booking findBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено с таким id" + bookingId));
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
         }
+    }
 
-        return bookingDtoList;
+    private Boolean checkAvailableTimeForBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (availabilityIndex.isEnabled()) {
+            return !availabilityIndex.overlaps(itemId, start, end);
+        }
+        return !bookingRepository
+                .existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(itemId, Status.APPROVED,
+                        end, start);
     }
 }
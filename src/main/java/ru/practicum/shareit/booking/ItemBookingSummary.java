@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и ближайшее подтвержденные бронирования вещи.
+ * next_start дублирует начало ближайшего бронирования, чтобы находить устаревшие строки по индексу.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * Ближайшее бронирование уже началось, а сборщик еще не перенес его в последнее.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+}
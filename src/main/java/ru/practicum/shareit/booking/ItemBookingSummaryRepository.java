@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s from ItemBookingSummary as s " +
+            "left join fetch s.lastBooking " +
+            "left join fetch s.nextBooking " +
+            "where s.itemId in ?1")
+    List<ItemBookingSummary> findAllWithBookingsByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select s.itemId from ItemBookingSummary as s where s.nextStart <= ?1")
+    List<Long> findItemIdsWithNextStartedBefore(LocalDateTime now);
+
+    @Modifying
+    @Query(value = "delete from item_booking_summary", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Заполняет таблицу по всем подтвержденным бронированиям, правила выбора
+     * совпадают с BookingRepository.findLastAndNextApprovedByItemIds.
+     */
+    @Modifying
+    @Query(value = "insert into item_booking_summary (item_id, last_booking_id, next_booking_id, next_start) " +
+            "select s.item_id, s.last_booking_id, s.next_booking_id, " +
+            "(select nb.start_date from bookings as nb where nb.id = s.next_booking_id) " +
+            "from (select i.item_id, " +
+            "(select b.id from bookings as b " +
+            "where b.item_id = i.item_id and b.status = 'APPROVED' and b.start_date <= ?1 " +
+            "order by b.end_date desc, b.id desc limit 1) as last_booking_id, " +
+            "(select b.id from bookings as b " +
+            "where b.item_id = i.item_id and b.status = 'APPROVED' and b.start_date > ?1 " +
+            "order by b.start_date, b.id limit 1) as next_booking_id " +
+            "from (select distinct item_id from bookings where status = 'APPROVED') as i) as s",
+            nativeQuery = true)
+    int insertFromApprovedBookings(LocalDateTime now);
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поддерживает item_booking_summary: строка вещи меняется в транзакции подтверждения бронирования,
+ * а сборщик раз в shareit.booking.summary.sweep-interval-ms переносит начавшиеся ближайшие
+ * бронирования в последние. И то и другое выполняется под ItemLock вещи.
+ */
+@Component
+@Slf4j
+public class ItemBookingSummaryUpdater {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemLock itemLock;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingSummaryUpdater(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository, ItemLock itemLock,
+                                     PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemLock = itemLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Вызывается в транзакции подтверждения под блокировкой вещи.
+     */
+    public void onApproved(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        Long itemId = booking.getItem().getId();
+        ItemBookingSummary summary = summaryRepository.findById(itemId)
+                .orElseGet(() -> new ItemBookingSummary(itemId));
+        if (summary.isStale(now)) {
+            refresh(List.of(itemId), now);
+            return;
+        }
+        if (booking.getStart().isAfter(now)) {
+            if (startsEarlier(booking, summary.getNextStart(), summary.getNextBooking())) {
+                summary.setNextBooking(booking);
+                summary.setNextStart(booking.getStart());
+            }
+        } else if (endsLater(booking, summary.getLastBooking())) {
+            summary.setLastBooking(booking);
+        }
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Вызывается в транзакции удаления после того, как бронирования вещей удалены:
+     * внешние ключи на них в строках сводки уже обнулены, строки считаются заново без них.
+     */
+    public void onDeleted(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds, LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.sweep-interval-ms:60000}")
+    public void sweep() {
+        sweep(LocalDateTime.now());
+    }
+
+    public void sweep(LocalDateTime now) {
+        List<Long> itemIds = summaryRepository.findItemIdsWithNextStartedBefore(now);
+        for (Long itemId : itemIds) {
+            itemLock.withLock(itemId, () -> refresh(List.of(itemId), now));
+        }
+        if (!itemIds.isEmpty()) {
+            log.debug("Обновлены последние и ближайшие бронирования вещей: {}", itemIds.size());
+        }
+    }
+
+    /**
+     * Считает строки заново по таблице бронирований, не сохраняя их.
+     */
+    public Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            summaries.put(itemId, new ItemBookingSummary(itemId));
+        }
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (!booking.getStart().isAfter(now)) {
+                summary.setLastBooking(booking);
+            } else {
+                summary.setNextBooking(booking);
+                summary.setNextStart(booking.getStart());
+            }
+        }
+        return summaries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (summaryRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Полностью пересобирает таблицу, например после загрузки бронирований в обход сервиса.
+     */
+    public void rebuild() {
+        int rows = transactionTemplate.execute(status -> {
+            summaryRepository.deleteAllRows();
+            return summaryRepository.insertFromApprovedBookings(LocalDateTime.now());
+        });
+        log.info("Сводка бронирований по вещам построена, вещей: {}", rows);
+    }
+
+    /**
+     * Правила выбора совпадают с BookingRepository.findLastAndNextApprovedByItemIds:
+     * ближайшее - самое раннее начало, последнее - самое позднее окончание, при равенстве решает id.
+     */
+    private static boolean startsEarlier(Booking booking, LocalDateTime nextStart, Booking next) {
+        return nextStart == null || booking.getStart().isBefore(nextStart)
+                || booking.getStart().equals(nextStart) && booking.getId() < next.getId();
+    }
+
+    private static boolean endsLater(Booking booking, Booking last) {
+        return last == null || booking.getEnd().isAfter(last.getEnd())
+                || booking.getEnd().equals(last.getEnd()) && booking.getId() > last.getId();
+    }
+
+    private List<ItemBookingSummary> refresh(Collection<Long> itemIds, LocalDateTime now) {
+        return summaryRepository.saveAll(compute(itemIds, now).values());
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import java.util.function.Supplier;
+
+/**
+ * Блокировка бронирований одной вещи.
+ * Действие выполняется в новой транзакции, которая фиксируется до снятия блокировки,
+ * поэтому вызывать нужно вне транзакции.
+ * Реализация выбирается свойством shareit.booking.lock.
+ */
+public interface ItemLock {
+
+    <T> T withLock(Long itemId, Supplier<T> action);
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Блокировка в пределах одного экземпляра приложения.
+ * Для каждой вещи создается своя блокировка, пока ее кто-то держит или ждет,
+ * поэтому запросы к разным вещам не конкурируют даже при совпадении хешей.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock", havingValue = "local", matchIfMissing = true)
+public class LocalItemLock implements ItemLock {
+    private final ConcurrentHashMap<Long, Entry> locks = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+
+    public LocalItemLock(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        Entry entry = locks.compute(itemId, (id, current) -> {
+            Entry acquired = current == null ? new Entry() : current;
+            acquired.holders++;
+            return acquired;
+        });
+        entry.lock.lock();
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            entry.lock.unlock();
+            locks.computeIfPresent(itemId, (id, current) -> --current.holders == 0 ? null : current);
+        }
+    }
+
+    int size() {
+        return locks.size();
+    }
+
+    private static class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Блокировка для нескольких экземпляров приложения на общей базе PostgreSQL.
+ * pg_advisory_xact_lock с ключом BOOKING_LOCK_SPACE и id вещи снимается самой базой при завершении транзакции.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock", havingValue = "advisory")
+public class PostgresAdvisoryItemLock implements ItemLock {
+    static final int BOOKING_LOCK_SPACE = 0x426b;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostgresAdvisoryItemLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", rs -> null,
+                    BOOKING_LOCK_SPACE, Long.hashCode(itemId));
+            return action.get();
+        });
+    }
+}
@@ -19,4 +19,13 @@ public class BookingDto {
     private Status status;
     private UserDto booker;
     private ItemDto item;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                      Long bookerId, String bookerName, String bookerEmail,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long itemRequestId) {
+        this(id, start, end, status,
+                new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId));
+    }
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine через JCache (spring.jpa.properties.hibernate.cache.*).
+ * Каждый контекст получает свой CacheManager: Hibernate закрывает его вместе с SessionFactory,
+ * а общий менеджер провайдера закрылся бы и для других контекстов в той же JVM.
+ * Размеры и время жизни регионов задаются в application.conf.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class HibernateCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jcacheManagerCustomizer() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER,
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(URI.create("shareit-" + UUID.randomUUID()),
+                                HibernateCacheConfig.class.getClassLoader()));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим виртуальных потоков (shareit.threads.virtual=true, нужен JDK 21+).
+ * Запросы Tomcat и асинхронные ответы MVC (StreamingResponseBody) выполняются каждый в своем
+ * виртуальном потоке, поэтому число одновременных запросов больше не ограничено server.tomcat.threads.max.
+ * Ограничением становится пул соединений, его размер задается отдельно
+ * (spring.datasource.hikari.maximum-pool-size): лишние запросы ждут соединение, не занимая потоков ОС.
+ * Исполнитель создается через отражение, чтобы сборка оставалась совместимой с Java 11.
+ * <p>
+ * Ограничение: профиль jdk21 меняет только версию Java, приложение остается на Spring Boot 2.7,
+ * Hibernate 5.6 и драйверах JDBC с synchronized-секциями вокруг ввода-вывода. На JDK 21-23 виртуальный
+ * поток, заблокированный внутри такой секции, закрепляет поток-носитель, и при нагрузке на базу
+ * параллельность падает до числа носителей (jdk.virtualThreadScheduler.parallelism).
+ * Режим экспериментальный, выигрыш ожидается только после перехода на Spring Boot 3.2+ и Hibernate 6.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.warn("Запросы обрабатываются в виртуальных потоках. На Spring Boot 2.7 и Hibernate 5.6 "
+                    + "блокировки в synchronized-секциях закрепляют потоки-носители, режим экспериментальный");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Виртуальные потоки требуют JDK 21, текущая версия: "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель виртуальных потоков", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItem_Id(Long itemId);
+
+    @EntityGraph("Comment.withAuthor")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
 }
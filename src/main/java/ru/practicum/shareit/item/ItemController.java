@@ -1,29 +1,45 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+    public static final int MAX_SEARCH_SIZE = 100;
+    public static final int DEFAULT_SEARCH_SIZE = 10;
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto create(@Valid @RequestBody ItemDto itemDto,
                           @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Добавление предмета " + itemDto.getName() + " пользователем с id " + userId);
+        log.info("Добавление предмета {} пользователем с id {}", itemDto.getName(), userId);
         ItemDto createdItem = itemService.create(itemDto, userId);
-        log.info("Предмет добавлен, id:" + createdItem.getId());
+        log.info("Предмет добавлен, id:{}", createdItem.getId());
         return createdItem;
     }
 
@@ -31,40 +47,80 @@ public class ItemController {
     public ItemDto update(@RequestBody ItemDto itemDto,
                           @PathVariable Long itemId,
                           @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Обновление предмета c id " + itemId + " пользователем с id " + userId);
+        log.info("Обновление предмета c id {} пользователем с id {}", itemId, userId);
         itemDto.setId(itemId);
         ItemDto updatedItem = itemService.update(itemDto, userId);
         log.info("Предмет обновлён");
         return updatedItem;
     }
 
+    /**
+     * При совпадении If-None-Match с текущим ETag отвечает 304 без сборки и сериализации ответа.
+     */
     @GetMapping("/{itemId}")
     public ItemBookingDto getById(@PathVariable Long itemId,
-                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Поиск предмета: " + itemId + " пользователем: " + userId);
+                                  @RequestHeader("X-Sharer-User-Id") Long userId,
+                                  WebRequest request) {
+        log.info("Поиск предмета: {} пользователем: {}", itemId, userId);
+        if (request.checkNotModified(itemService.getETag(itemId, userId))) {
+            log.info("Предмет {} не изменился", itemId);
+            return null;
+        }
         return itemService.getById(itemId, userId);
     }
 
     @GetMapping
     public List<ItemBookingDto> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Поиск предметов пользователя id: " + userId);
+        log.info("Поиск предметов пользователя id: {}", userId);
         return itemService.getByUserId(userId);
     }
 
+    /**
+     * Без from и size, как и раньше, возвращаются все найденные вещи (загружаются пачками, как в потоковом
+     * поиске). С любым из параметров - страница не больше MAX_SEARCH_SIZE, по умолчанию DEFAULT_SEARCH_SIZE.
+     */
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam(name = "text") String searchText) {
-        log.info("Поиск предметов по запросу: " + searchText);
-        List<ItemDto> searchedItems = itemService.search(searchText.toLowerCase());
+    public List<ItemDto> search(@RequestParam(name = "text") String searchText,
+                                @RequestParam(name = "from", required = false) @Min(0) Integer from,
+                                @RequestParam(name = "size", required = false) @Min(1) Integer size) {
+        log.info("Поиск предметов по запросу: {}", searchText);
+        List<ItemDto> searchedItems;
+        if (from == null && size == null) {
+            searchedItems = new ArrayList<>();
+            itemService.searchStream(searchText.toLowerCase(), searchedItems::addAll);
+        } else {
+            searchedItems = itemService.search(searchText.toLowerCase(), from == null ? 0 : from,
+                    Math.min(size == null ? DEFAULT_SEARCH_SIZE : size, MAX_SEARCH_SIZE));
+        }
         log.info("Список предметов передан");
         return  searchedItems;
     }
 
+    @GetMapping(path = "/search", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchStream(@RequestParam(name = "text") String searchText) {
+        log.info("Потоковый поиск предметов по запросу: {}", searchText);
+        StreamingResponseBody body = outputStream -> itemService.searchStream(searchText.toLowerCase(), items -> {
+            try {
+                for (ItemDto item : items) {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@Valid @RequestBody CommentDto commentDto,
                                     @PathVariable Long itemId,
                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Добавление коммента с текстом: " + commentDto.getText() +
-                "\nк вещи: " + itemId + "\n пользователем: " + userId);
+        log.info("Добавление коммента с текстом: {}\nк вещи: {}\n пользователем: {}",
+                commentDto.getText(), itemId, userId);
         commentDto.setAuthorId(userId);
         commentDto.setItemId(itemId);
         commentDto.setCreated(LocalDateTime.now());
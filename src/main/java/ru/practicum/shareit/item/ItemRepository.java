@@ -1,22 +1,80 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String CACHEABLE = org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+    String FETCH_SIZE = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+    String SEARCH_FETCH_SIZE = "100";
+
+    /**
+     * Результат кэшируется в кэше запросов Hibernate до любого изменения таблицы items.
+     */
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findAllByOwnerId(Long ownerId);
 
-    @Query("select it " +
+    @Query("select it.id " +
             "from Item as it " +
             "where it.available = true and " +
-            "(lower(it.name) like lower(concat('%', ?1, '%') ) or " +
-            "lower(it.description) like lower(concat('%', ?1, '%') ))")
-    List<Item> search(String text);
+            "(lower(it.name) like ?1 escape '!' or " +
+            "lower(it.description) like ?1 escape '!') " +
+            "order by it.id")
+    List<Long> searchByPattern(String pattern, Pageable pageable);
+
+    /**
+     * Все результаты searchByPattern одним запросом, строки читаются из курсора пачками.
+     */
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = SEARCH_FETCH_SIZE))
+    @Query("select it.id " +
+            "from Item as it " +
+            "where it.available = true and " +
+            "(lower(it.name) like ?1 escape '!' or " +
+            "lower(it.description) like ?1 escape '!') " +
+            "order by it.id")
+    Stream<Long> streamByPattern(String pattern);
+
+    @Query(value = "select i.id " +
+            "from items as i, to_tsquery('simple', ?1) as q " +
+            "where i.available = true and i.search_vector @@ q " +
+            "order by ts_rank(i.search_vector, q) desc, i.id " +
+            "limit ?3 offset ?2", nativeQuery = true)
+    List<Long> searchByTsQuery(String tsQuery, int from, int size);
 
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = SEARCH_FETCH_SIZE))
+    @Query(value = "select i.id " +
+            "from items as i, to_tsquery('simple', ?1) as q " +
+            "where i.available = true and i.search_vector @@ q " +
+            "order by ts_rank(i.search_vector, q) desc, i.id", nativeQuery = true)
+    Stream<Long> streamByTsQuery(String tsQuery);
+
+    Slice<Item> findAllByAvailableTrue(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findAllByRequestId(Long requestId);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select new ru.practicum.shareit.item.ItemVersion(it.owner.id, it.version, " +
+            "(select count(c) from Comment as c where c.item.id = it.id), " +
+            "(select coalesce(max(c.id), 0) from Comment as c where c.item.id = it.id), " +
+            "(select coalesce(sum(c.id), 0) from Comment as c where c.item.id = it.id), " +
+            "(select coalesce(sum(a.version), 0) from Comment as c join c.author as a where c.item.id = it.id), " +
+            "s.lastBooking.id, s.nextBooking.id, s.nextStart) " +
+            "from Item as it " +
+            "left join ItemBookingSummary as s on s.itemId = it.id " +
+            "where it.id = ?1")
+    Optional<ItemVersion> findVersionById(Long itemId);
 }
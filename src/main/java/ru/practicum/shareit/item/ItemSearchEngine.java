@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Поисковый индекс доступных вещей.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface ItemSearchEngine {
+
+    void index(Item item);
+
+    /**
+     * Убирает удаленную вещь из индекса.
+     */
+    void remove(Long itemId);
+
+    /**
+     * Возвращает id доступных вещей, отсортированные по релевантности.
+     */
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * Один проход по всем найденным id в порядке релевантности, пачками по batchSize.
+     */
+    void searchAll(String text, int batchSize, Consumer<List<Long>> batchConsumer);
+
+    static void forEachBatch(Stream<Long> ids, int batchSize, Consumer<List<Long>> batchConsumer) {
+        List<Long> batch = new ArrayList<>(batchSize);
+        for (Iterator<Long> iterator = ids.iterator(); iterator.hasNext(); ) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize) {
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+}
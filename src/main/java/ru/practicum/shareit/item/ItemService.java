@@ -4,7 +4,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -14,11 +17,20 @@ public interface ItemService {
 
     ItemBookingDto getById(Long itemId, Long userId);
 
+    /**
+     * ETag ответа getById для этого пользователя, меняется вместе с любым полем ответа.
+     */
+    String getETag(Long itemId, Long userId);
+
     List<ItemBookingDto> getByUserId(Long userId);
 
-    List<ItemDto> search(String searchText);
+    List<ItemDto> search(String searchText, Integer from, Integer size);
+
+    void searchStream(String searchText, Consumer<List<ItemDto>> batchConsumer);
 
     CommentDto createComment(CommentDto comment);
 
     List<ItemDto> getByRequest(Long requestId);
+
+    Map<Long, List<ItemDto>> getByRequests(Collection<Long> requestIds);
 }
@@ -2,10 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -18,27 +21,38 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
-
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int SEARCH_STREAM_BATCH_SIZE = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public ItemDto create(ItemDto itemDto, Long userId) {
-        User itemOwner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
         Item item = itemMapper.toEntity(itemDto);
 
@@ -48,9 +62,11 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        item.setOwner(itemOwner);
+        item.setOwner(userRepository.getReferenceById(userId));
 
-        return itemMapper.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        return itemMapper.toDto(savedItem);
     }
 
     @Override
@@ -73,7 +89,9 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
-        return itemMapper.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        return itemMapper.toDto(savedItem);
     }
 
     @Override
@@ -81,43 +99,102 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена с таким id " + itemId));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
-        if (item.getOwner().getId().equals(user.getId())) {
-            return setComments(setLastNextBookingsToItem(itemMapper.toItemBookingDto(item)));
-        } else {
-            return setComments(itemMapper.toItemBookingDto(item));
+        ItemBookingDto itemBookingDto = itemMapper.toItemBookingDto(item);
+        if (item.getOwner().getId().equals(userId)) {
+            setLastNextBookings(List.of(itemBookingDto));
         }
+        setComments(List.of(itemBookingDto));
+
+        return itemBookingDto;
+    }
+
+    @Override
+    public String getETag(Long itemId, Long userId) {
+        ItemVersion version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена с таким id " + itemId));
+        checkUserExists(userId);
+
+        String tag = itemId + "." + version.getVersion() + "." + version.getComments() + "."
+                + version.getCommentsMaxId() + "." + version.getCommentsIdSum() + "."
+                + version.getCommentAuthorsVersion();
+        if (!version.getOwnerId().equals(userId)) {
+            return tag;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Long lastBookingId = version.getLastBookingId();
+        Long nextBookingId = version.getNextBookingId();
+        if (version.getNextStart() != null && !version.getNextStart().isAfter(now)) {
+            ItemBookingSummary summary = summaryUpdater.compute(List.of(itemId), now).get(itemId);
+            lastBookingId = summary.getLastBooking() == null ? null : summary.getLastBooking().getId();
+            nextBookingId = summary.getNextBooking() == null ? null : summary.getNextBooking().getId();
+        }
+        return tag + "." + lastBookingId + "." + nextBookingId;
     }
 
     @Override
     public List<ItemBookingDto> getByUserId(Long userId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
-        List<Item> items = itemRepository.findAllByOwnerId(user.getId());
+        List<Item> items = itemRepository.findAllByOwnerId(userId);
         List<ItemBookingDto> itemBookingDtoList = new ArrayList<>();
 
         if (items.size() != 0) {
             for (Item item : items) {
-                itemBookingDtoList.add(setComments(setLastNextBookingsToItem(itemMapper
-                        .toItemBookingDto(item))));
+                itemBookingDtoList.add(itemMapper.toItemBookingDto(item));
             }
+            setLastNextBookings(itemBookingDtoList);
+            setComments(itemBookingDtoList);
         }
 
         return itemBookingDtoList;
     }
 
     @Override
-    public List<ItemDto> search(String searchText) {
-        List<ItemDto> items = new ArrayList<>();
+    public List<ItemDto> search(String searchText, Integer from, Integer size) {
         if (searchText.isBlank()) {
+            return new ArrayList<>();
+        }
+        return loadInOrder(itemSearchEngine.search(searchText, from, size));
+    }
+
+    /**
+     * Поисковый движок проходит по результатам один раз в короткой транзакции и отдает только id.
+     * Вещи загружаются пачками по этим id, каждая пачка своим запросом, поэтому клиент, медленно
+     * читающий ответ, не держит соединение с базой. Контекст очищается после каждой пачки.
+     */
+    @Override
+    public void searchStream(String searchText, Consumer<List<ItemDto>> batchConsumer) {
+        if (searchText.isBlank()) {
+            return;
+        }
+        List<List<Long>> idBatches = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status ->
+                itemSearchEngine.searchAll(searchText, SEARCH_STREAM_BATCH_SIZE, idBatches::add));
+        for (List<Long> ids : idBatches) {
+            List<ItemDto> batch = loadInOrder(ids);
+            entityManager.clear();
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        }
+    }
+
+    private List<ItemDto> loadInOrder(List<Long> ids) {
+        List<ItemDto> items = new ArrayList<>();
+        if (ids.isEmpty()) {
             return items;
         }
-        for (Item item : itemRepository.search(searchText)) {
-            items.add(itemMapper.toDto(item));
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                items.add(itemMapper.toDto(item));
+            }
         }
         return items;
     }
@@ -155,38 +232,67 @@ public class ItemServiceImpl implements ItemService {
         return itemDtoList;
     }
 
-    private ItemBookingDto setLastNextBookingsToItem(ItemBookingDto itemBookingDto) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookingsForItem = bookingRepository.findAllByItem_Id(itemBookingDto.getId());
-        if (bookingsForItem.size() != 0) {
-            Booking lastBooking = bookingsForItem.stream()
-                    .filter(b -> b.getStatus().equals(Status.APPROVED) &&
-                            b.getStart().isBefore(now))
-                    .max(Comparator.comparing(Booking::getEnd))
-                    .orElse(null);
-
-            Booking nextBooking = bookingsForItem.stream()
-                    .filter(b -> b.getStatus().equals(Status.APPROVED) &&
-                            b.getStart().isAfter(now))
-                    .min(Comparator.comparing(Booking::getEnd))
-                    .orElse(null);
-
-            itemBookingDto.setLastBooking(bookingMapper.toBookingItemDto(lastBooking));
-            itemBookingDto.setNextBooking(bookingMapper.toBookingItemDto(nextBooking));
+    @Override
+    public Map<Long, List<ItemDto>> getByRequests(Collection<Long> requestIds) {
+        Map<Long, List<ItemDto>> itemsByRequest = new HashMap<>();
+        for (Long requestId : requestIds) {
+            itemsByRequest.put(requestId, new ArrayList<>());
+        }
+        if (!requestIds.isEmpty()) {
+            for (Item item : itemRepository.findAllByRequestIdIn(requestIds)) {
+                itemsByRequest.get(item.getRequest().getId()).add(itemMapper.toDto(item));
+            }
+        }
+        return itemsByRequest;
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
         }
-        return itemBookingDto;
     }
 
-    private ItemBookingDto setComments(ItemBookingDto itemBookingDto) {
-        List<Comment> commentsForItem = commentRepository.findAllByItem_Id(itemBookingDto.getId());
-        List<CommentDto> commentDtoList = new ArrayList<>();
-        if (commentsForItem.size() != 0) {
-            for (Comment comment : commentsForItem) {
-                commentDtoList.add(itemMapper.toCommentDto(comment));
+    /**
+     * Берет готовые строки item_booking_summary. Строки, у которых ближайшее бронирование
+     * уже началось, а сборщик до них еще не дошел, пересчитываются по бронированиям.
+     */
+    private void setLastNextBookings(List<ItemBookingDto> itemBookingDtoList) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingDto> itemsById = itemBookingDtoList.stream()
+                .collect(Collectors.toMap(ItemBookingDto::getId, Function.identity()));
+
+        List<Long> staleItemIds = new ArrayList<>();
+        List<ItemBookingSummary> summaries = new ArrayList<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllWithBookingsByItemIdIn(itemsById.keySet())) {
+            if (summary.isStale(now)) {
+                staleItemIds.add(summary.getItemId());
+            } else {
+                summaries.add(summary);
             }
         }
-        itemBookingDto.setComments(commentDtoList);
+        if (!staleItemIds.isEmpty()) {
+            summaries.addAll(summaryUpdater.compute(staleItemIds, now).values());
+        }
 
-        return itemBookingDto;
+        for (ItemBookingSummary summary : summaries) {
+            ItemBookingDto itemBookingDto = itemsById.get(summary.getItemId());
+            itemBookingDto.setLastBooking(bookingMapper.toBookingItemDto(summary.getLastBooking()));
+            itemBookingDto.setNextBooking(bookingMapper.toBookingItemDto(summary.getNextBooking()));
+        }
+    }
+
+    private void setComments(List<ItemBookingDto> itemBookingDtoList) {
+        Map<Long, List<CommentDto>> commentsByItem = new HashMap<>();
+        for (ItemBookingDto itemBookingDto : itemBookingDtoList) {
+            commentsByItem.put(itemBookingDto.getId(), new ArrayList<>());
+        }
+
+        for (Comment comment : commentRepository.findAllByItem_IdIn(commentsByItem.keySet())) {
+            commentsByItem.get(comment.getItem().getId()).add(itemMapper.toCommentDto(comment));
+        }
+
+        for (ItemBookingDto itemBookingDto : itemBookingDtoList) {
+            itemBookingDto.setComments(commentsByItem.get(itemBookingDto.getId()));
+        }
     }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Все, от чего зависит ответ GET /items/{itemId}: версия вещи, комментарии с версиями их авторов
+ * и строка item_booking_summary. Читается одним запросом без загрузки самих сущностей.
+ * max и сумма id комментариев отличают удаление одного комментария и добавление другого.
+ */
+@Data
+@AllArgsConstructor
+public class ItemVersion {
+    private Long ownerId;
+    private Long version;
+    private Long comments;
+    private Long commentsMaxId;
+    private Long commentsIdSum;
+    private Long commentAuthorsVersion;
+    private Long lastBookingId;
+    private Long nextBookingId;
+    private LocalDateTime nextStart;
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Инвертированный индекс доступных вещей в памяти приложения.
+ * Каждое слово запроса ищется по префиксу в названии и описании,
+ * точные совпадения и совпадения в названии ранжируются выше (BM25).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "lucene", matchIfMissing = true)
+public class LuceneItemSearchEngine implements ItemSearchEngine {
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public LuceneItemSearchEngine(ItemRepository itemRepository) throws IOException {
+        this.itemRepository = itemRepository;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            int count = 0;
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by(ID));
+            Slice<Item> items;
+            do {
+                items = itemRepository.findAllByAvailableTrue(pageable);
+                for (Item item : items) {
+                    writer.addDocument(toDocument(item));
+                    count++;
+                }
+                pageable = items.nextPageable();
+            } while (items.hasNext());
+            searcherManager.maybeRefreshBlocking();
+            log.info("Поисковый индекс вещей построен, доступных вещей: {}", count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        try {
+            Term id = new Term(ID, String.valueOf(item.getId()));
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                writer.updateDocument(id, toDocument(item));
+            } else {
+                writer.deleteDocuments(id);
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(itemId)));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            BooleanQuery query = buildQuery(text);
+            if (query.clauses().isEmpty()) {
+                return ids;
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int limit = (int) Math.min((long) from + size, Math.max(searcher.getIndexReader().numDocs(), 1));
+                TopDocs topDocs = searcher.search(query, limit);
+                for (int i = from; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    /**
+     * Страницы берутся через searchAfter от последнего найденного документа
+     * на одном снимке индекса, без повторного пропуска уже выданных результатов.
+     */
+    @Override
+    public void searchAll(String text, int batchSize, Consumer<List<Long>> batchConsumer) {
+        try {
+            BooleanQuery query = buildQuery(text);
+            if (query.clauses().isEmpty()) {
+                return;
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc after = null;
+                ScoreDoc[] scoreDocs;
+                do {
+                    scoreDocs = searcher.searchAfter(after, query, batchSize).scoreDocs;
+                    if (scoreDocs.length == 0) {
+                        break;
+                    }
+                    List<Long> ids = new ArrayList<>(scoreDocs.length);
+                    for (ScoreDoc scoreDoc : scoreDocs) {
+                        ids.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(ID)));
+                    }
+                    batchConsumer.accept(ids);
+                    after = scoreDocs[scoreDocs.length - 1];
+                } while (scoreDocs.length == batchSize);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private BooleanQuery buildQuery(String text) throws IOException {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                String token = term.toString();
+                query.add(new BooleanQuery.Builder()
+                        .add(new BoostQuery(new TermQuery(new Term(NAME, token)), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new TermQuery(new Term(DESCRIPTION, token)), BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new PrefixQuery(new Term(NAME, token)), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(new Term(DESCRIPTION, token)), BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.MUST);
+            }
+            stream.end();
+        }
+        return query.build();
+    }
+
+    private Document toDocument(Item item) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(item.getId()), Field.Store.YES));
+        document.add(new TextField(NAME, item.getName(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, item.getDescription(), Field.Store.NO));
+        return document;
+    }
+}
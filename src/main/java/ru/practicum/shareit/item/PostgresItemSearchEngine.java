@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Полнотекстовый поиск PostgreSQL по сгенерированной колонке items.search_vector с GIN-индексом.
+ * Колонка пересчитывается базой при каждом изменении вещи, поэтому индексировать ничего не нужно.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.searchByTsQuery(query, from, size);
+    }
+
+    @Override
+    public void searchAll(String text, int batchSize, Consumer<List<Long>> batchConsumer) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return;
+        }
+        try (Stream<Long> ids = itemRepository.streamByTsQuery(query)) {
+            ItemSearchEngine.forEachBatch(ids, batchSize, batchConsumer);
+        }
+    }
+
+    /**
+     * Запрос to_tsquery: все слова текста как префиксы, пустая строка - если слов нет.
+     */
+    public static String toTsQuery(String text) {
+        return Stream.of(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
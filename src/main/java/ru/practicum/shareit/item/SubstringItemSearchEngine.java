@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.OffsetPageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Поиск подстроки через lower(...) like '%text%'.
+ * В профиле postgres-trgm запрос обслуживают GIN-индексы pg_trgm, на H2 выполняется полный просмотр.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "substring")
+public class SubstringItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.searchByPattern(toLikePattern(text), OffsetPageRequest.of(from, size));
+    }
+
+    @Override
+    public void searchAll(String text, int batchSize, Consumer<List<Long>> batchConsumer) {
+        try (Stream<Long> ids = itemRepository.streamByPattern(toLikePattern(text))) {
+            ItemSearchEngine.forEachBatch(ids, batchSize, batchConsumer);
+        }
+    }
+
+    /**
+     * Шаблон для like ... escape '!' по подстроке текста в нижнем регистре.
+     */
+    public static String toLikePattern(String text) {
+        return "%" + text.toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Количество SQL-запросов и время в БД для текущего HTTP-запроса.
+ * Живет в ThreadLocal между началом и концом SqlStatisticsFilter,
+ * тексты запросов сохраняются не больше MAX_QUERIES.
+ */
+@Getter
+public class SqlStatistics {
+    static final int MAX_QUERIES = 100;
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long timeMs;
+    private final List<String> queries = new ArrayList<>();
+
+    public static Optional<SqlStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    public List<String> getQueries() {
+        return Collections.unmodifiableList(queries);
+    }
+
+    void record(String query, long elapsedMs) {
+        count++;
+        timeMs += elapsedMs;
+        if (queries.size() < MAX_QUERIES) {
+            queries.add(elapsedMs + " мс: " + query);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Собирает SqlStatistics на время обработки запроса и пишет в лог запросы,
+ * превысившие shareit.sql.slow-request.statements или shareit.sql.slow-request.time-ms,
+ * вместе со списком выполненных SQL.
+ */
+@Component
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    private final int maxStatements;
+    private final long maxTimeMs;
+
+    public SqlStatisticsFilter(@Value("${shareit.sql.slow-request.statements:20}") int maxStatements,
+                               @Value("${shareit.sql.slow-request.time-ms:200}") long maxTimeMs) {
+        this.maxStatements = maxStatements;
+        this.maxTimeMs = maxTimeMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatistics.stop();
+            if (statistics.getCount() > maxStatements || statistics.getTimeMs() > maxTimeMs) {
+                log.warn("Медленный запрос {} {}: SQL-запросов {}, время в БД {} мс\n{}", request.getMethod(),
+                        request.getRequestURI(), statistics.getCount(), statistics.getTimeMs(),
+                        String.join("\n", statistics.getQueries()));
+            }
+            MDC.remove(SqlStatisticsListener.MDC_COUNT);
+            MDC.remove(SqlStatisticsListener.MDC_TIME);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Отладочный режим (shareit.sql.debug-headers=true): добавляет к ответу заголовки
+ * с количеством SQL-запросов и временем в БД. Заголовки ставятся перед записью тела,
+ * пока ответ еще не отправлен.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.sql.debug-headers", havingValue = "true")
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String COUNT_HEADER = "X-Sql-Count";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatistics.current().ifPresent(statistics -> {
+            response.getHeaders().set(COUNT_HEADER, String.valueOf(statistics.getCount()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(statistics.getTimeMs()));
+        });
+        return body;
+    }
+}
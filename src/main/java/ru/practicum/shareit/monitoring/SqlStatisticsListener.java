@@ -0,0 +1,33 @@
+package ru.practicum.shareit.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Слушатель datasource-proxy: учитывает каждое выполнение (batch - как одно)
+ * в SqlStatistics текущего запроса и обновляет MDC.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+    public static final String MDC_COUNT = "sqlCount";
+    public static final String MDC_TIME = "sqlTimeMs";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics.current().ifPresent(statistics -> {
+            statistics.record(queryInfoList.stream()
+                    .map(QueryInfo::getQuery)
+                    .collect(Collectors.joining("; ")), execInfo.getElapsedTime());
+            MDC.put(MDC_COUNT, String.valueOf(statistics.getCount()));
+            MDC.put(MDC_TIME, String.valueOf(statistics.getTimeMs()));
+        });
+    }
+}
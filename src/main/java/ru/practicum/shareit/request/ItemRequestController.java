@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
 
@@ -25,10 +26,10 @@ public class ItemRequestController {
     ItemRequestDto create(@Valid @RequestBody ItemRequestDto itemRequestDto,
                           @RequestHeader("X-Sharer-User-Id") Long userId) {
 
-        log.info("Создание запроса пользователем с id: " + userId);
+        log.info("Создание запроса пользователем с id: {}", userId);
         ItemRequestDto itemRequestDtoResp
                 = itemRequestService.create(itemRequestDto, LocalDateTime.now(), userId);
-        log.info("Запрос создан с id: " + itemRequestDtoResp.getId());
+        log.info("Запрос создан с id: {}", itemRequestDtoResp.getId());
         return itemRequestDtoResp;
     }
 
@@ -46,7 +47,11 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}") //просматривать может любой
     ItemRequestRespDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @PathVariable Long requestId) {
+                               @PathVariable Long requestId,
+                               WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getETag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 
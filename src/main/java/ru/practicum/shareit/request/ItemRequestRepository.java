@@ -2,9 +2,11 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -13,4 +15,16 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findAllByUserIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
 
+    /**
+     * Кроме числа вещей и суммы их версий берутся max и сумма их id: иначе удаление одной вещи
+     * и добавление другой с той же версией не меняет ETag.
+     */
+    @Query("select new ru.practicum.shareit.request.ItemRequestVersion(r.version, " +
+            "(select count(it) from Item as it where it.request.id = r.id), " +
+            "(select coalesce(max(it.id), 0) from Item as it where it.request.id = r.id), " +
+            "(select coalesce(sum(it.id), 0) from Item as it where it.request.id = r.id), " +
+            "(select coalesce(sum(it.version), 0) from Item as it where it.request.id = r.id)) " +
+            "from ItemRequest as r " +
+            "where r.id = ?1")
+    Optional<ItemRequestVersion> findVersionById(Long requestId);
 }
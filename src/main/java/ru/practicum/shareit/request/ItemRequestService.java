@@ -15,4 +15,9 @@ public interface ItemRequestService {
     List<ItemRequestRespDto> getAll(Long userId, Integer from, Integer size);
 
     ItemRequestRespDto getById(Long userId, Long requestId);
+
+    /**
+     * ETag ответа getById: версия запроса, число его вещей и сумма их версий.
+     */
+    String getETag(Long userId, Long requestId);
 }
@@ -1,19 +1,21 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.OffsetPageRequest;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,63 +28,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto create(ItemRequestDto itemRequestDto, LocalDateTime created, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
         itemRequestDto.setCreated(created);
         itemRequestDto.setUserId(userId);
         ItemRequest itemRequest = mapper.toEntity(itemRequestDto);
-        itemRequest.setUser(user);
+        itemRequest.setUser(userRepository.getReferenceById(userId));
 
         return mapper.toDto(itemRequestRepository.save(itemRequest));
     }
 
     @Override
     public List<ItemRequestRespDto> getAllByRequester(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
-        List<ItemRequestRespDto> requests = new ArrayList<>();
         List<ItemRequest> requestsByUser =
-                itemRequestRepository.findAllByUserIdOrderByCreatedDesc(user.getId());
-
-        if (!requestsByUser.isEmpty()) {
-            for (ItemRequest request : requestsByUser) {
-                ItemRequestRespDto itemRequestRespDto = mapper.toRespDto(request);
-                itemRequestRespDto.setItems(itemService.getByRequest(request.getId()));
-                requests.add(itemRequestRespDto);
-            }
-        }
+                itemRequestRepository.findAllByUserIdOrderByCreatedDesc(userId);
 
-        return requests;
+        return toRespDtoWithItems(requestsByUser);
     }
 
     @Override
     public List<ItemRequestRespDto> getAll(Long userId, Integer from, Integer size) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
 
-        List<ItemRequestRespDto> requests = new ArrayList<>();
         List<ItemRequest> requestsByUser =
-                itemRequestRepository.findAllByUserIdNotOrderByCreatedDesc(user.getId(),
-                        PageRequest.of(from / size, size));
-
-        if (!requestsByUser.isEmpty()) {
-            for (ItemRequest request : requestsByUser) {
-                ItemRequestRespDto itemRequestRespDto = mapper.toRespDto(request);
-                itemRequestRespDto.setItems(itemService.getByRequest(request.getId()));
-                requests.add(itemRequestRespDto);
-            }
-        }
+                itemRequestRepository.findAllByUserIdNotOrderByCreatedDesc(userId,
+                        OffsetPageRequest.of(from, size));
 
-        return requests;
+        return toRespDtoWithItems(requestsByUser);
     }
 
     @Override
     public ItemRequestRespDto getById(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        checkUserExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден с id: " + requestId));
 
@@ -91,4 +71,37 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         return itemRequestRespDto;
     }
+
+    @Override
+    public String getETag(Long userId, Long requestId) {
+        checkUserExists(userId);
+        ItemRequestVersion version = itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не найден с id: " + requestId));
+
+        return requestId + "." + version.getVersion() + "." + version.getItems() + "." + version.getItemsMaxId()
+                + "." + version.getItemsIdSum() + "." + version.getItemsVersion();
+    }
+
+    private List<ItemRequestRespDto> toRespDtoWithItems(List<ItemRequest> itemRequests) {
+        List<ItemRequestRespDto> requests = new ArrayList<>();
+        if (itemRequests.isEmpty()) {
+            return requests;
+        }
+
+        Map<Long, List<ItemDto>> itemsByRequest = itemService.getByRequests(itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+        for (ItemRequest request : itemRequests) {
+            ItemRequestRespDto itemRequestRespDto = mapper.toRespDto(request);
+            itemRequestRespDto.setItems(itemsByRequest.get(request.getId()));
+            requests.add(itemRequestRespDto);
+        }
+        return requests;
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+    }
 }
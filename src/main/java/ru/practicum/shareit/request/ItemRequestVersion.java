@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Версия запроса и его вещей для ETag ответа GET /requests/{requestId}.
+ */
+@Data
+@AllArgsConstructor
+public class ItemRequestVersion {
+    private Long version;
+    private Long items;
+    private Long itemsMaxId;
+    private Long itemsIdSum;
+    private Long itemsVersion;
+}
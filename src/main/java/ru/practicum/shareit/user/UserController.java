@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -17,7 +18,7 @@ public class UserController {
 
     @PostMapping
     public UserDto create(@Valid @RequestBody UserDto userDto) {
-        log.info("Создание пользователя с email: " + userDto.getEmail());
+        log.info("Создание пользователя с email: {}", userDto.getEmail());
         UserDto createdUserDto = userService.create(userDto);
         log.info("Пользователь создан");
         return createdUserDto;
@@ -30,14 +31,18 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto getById(@PathVariable Long id) {
-        log.info("Запрос пользователя с id: " + id + "...");
+    public UserDto getById(@PathVariable Long id, WebRequest request) {
+        log.info("Запрос пользователя с id: {}...", id);
+        if (request.checkNotModified(userService.getETag(id))) {
+            log.info("Пользователь {} не изменился", id);
+            return null;
+        }
         return  userService.getById(id);
     }
 
     @PatchMapping("/{id}")
     public UserDto update(@RequestBody UserDto userDto, @PathVariable Long id) {
-        log.info("Запрос на обновление пользователя с id: " + id + "...");
+        log.info("Запрос на обновление пользователя с id: {}...", id);
         userDto.setId(id);
         UserDto updatedUserDto = userService.update(userDto);
         log.info("Пользователь обновлен");
@@ -46,7 +51,7 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        log.info("Запрос на удаление пользователя с id: " + id + "...");
+        log.info("Запрос на удаление пользователя с id: {}...", id);
         userService.delete(id);
         log.info("Пользоватль удален");
     }
@@ -1,8 +1,23 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Проверка через findById читает пользователя из кэша второго уровня Hibernate,
+     * а не выполняет select count в базе. Отдельный кэш Spring с результатами existsById убран:
+     * он дублировал кэш второго уровня, и его нужно было сбрасывать отдельно при изменении и удалении.
+     */
+    @Override
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Query("select u.version from User as u where u.id = ?1")
+    Optional<Long> findVersionById(Long id);
 }
@@ -12,6 +12,8 @@ public interface UserService {
 
     UserDto getById(Long id);
 
+    String getETag(Long id);
+
     UserDto update(UserDto userDto);
 
     void delete(Long id);
@@ -2,17 +2,32 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Override
     public UserDto create(UserDto userDto) {
@@ -35,6 +50,12 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден с таким id: " + id)));
     }
 
+    @Override
+    public String getETag(Long id) {
+        return id + "." + userRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден с таким id: " + id));
+    }
+
     @Override
     public UserDto update(UserDto userDto) {
         User user = userRepository.findById(userDto.getId())
@@ -49,8 +70,28 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(userRepository.save(user));
     }
 
+    /**
+     * Вещи пользователя удаляются через Hibernate, а не каскадом в базе: так из кэша второго уровня
+     * уходят только они, а результаты кэша запросов по вещам устаревают как при любом их изменении,
+     * и они же удаляются из поискового индекса.
+     * Бронирования пользователя удаляет каскад в базе, после него пересчитывается сводка
+     * последних и ближайших бронирований вещей, которые он арендовал, а из индекса занятости
+     * после фиксации снимаются его подтвержденные бронирования и удаленные вещи.
+     */
     @Override
+    @Transactional
     public void delete(Long id) {
+        List<Item> items = itemRepository.findAllByOwnerId(id);
+        itemRepository.deleteAll(items);
+        items.forEach(item -> itemSearchEngine.remove(item.getId()));
+        List<BookingPeriod> approved = bookingRepository.findAllPeriodsByBookerIdAndStatus(id, Status.APPROVED);
         userRepository.deleteById(id);
+        userRepository.flush();
+        summaryUpdater.onDeleted(approved.stream()
+                .map(BookingPeriod::getItemId)
+                .collect(Collectors.toSet()));
+        availabilityIndex.onDeleted(approved, items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
     }
 }
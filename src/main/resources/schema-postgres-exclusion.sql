@@ -0,0 +1,13 @@
+create extension if not exists btree_gist;
+
+-- Ограничение добавляется, только если его еще нет: повторное добавление при каждом запуске
+-- заново проверяло бы всю таблицу bookings. Тело блока в одинарных кавычках, а не в $$,
+-- чтобы скрипт не разрезался по ; внутри него.
+do '
+begin
+    if not exists (select 1 from pg_constraint where conname = ''ex_bookings_approved_period'') then
+        alter table bookings add constraint ex_bookings_approved_period
+            exclude using gist (item_id with =, tsrange(start_date, end_date, ''[]'') with &&)
+            where (status = ''APPROVED'');
+    end if;
+end';
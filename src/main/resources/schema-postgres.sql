@@ -0,0 +1,97 @@
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists requests_seq start with 1 increment by 50;
+create sequence if not exists items_seq start with 1 increment by 50;
+create sequence if not exists bookings_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
+
+create table if not exists users (
+    id bigint default nextval('users_seq') primary key,
+    name varchar(50) not null,
+    email varchar(255) unique not null,
+    version bigint not null default 0,
+    constraint uq_user_email unique (email)
+);
+
+create table if not exists requests (
+    id bigint default nextval('requests_seq') primary key,
+    description varchar(255) not null,
+    created_time timestamp without time zone,
+    user_id bigint references users(id),
+    version bigint not null default 0
+);
+
+create table if not exists items (
+    id bigint default nextval('items_seq') primary key,
+    name varchar(50) not null,
+    description varchar(255) not null,
+    available boolean not null,
+    owner_id bigint not null references users(id) on delete cascade,
+    request_id bigint references requests(id),
+    version bigint not null default 0
+);
+
+create index if not exists ix_items_owner on items (owner_id);
+
+alter table items add column if not exists search_vector tsvector
+    generated always as (to_tsvector('simple', name || ' ' || description)) stored;
+create index if not exists ix_items_search on items using gin (search_vector);
+
+create table if not exists bookings (
+    id bigint default nextval('bookings_seq') primary key,
+    start_date timestamp without time zone not null,
+    end_date timestamp without time zone not null,
+    item_id  bigint not null references items(id),
+    booker_id  bigint not null references users(id) on delete cascade,
+    status varchar(15) not null,
+    version bigint not null default 0
+);
+
+create index if not exists ix_bookings_item_status_period on bookings (item_id, status, start_date, end_date);
+create index if not exists ix_bookings_booker_start on bookings (booker_id, start_date desc, id desc);
+create index if not exists ix_bookings_item_start on bookings (item_id, start_date desc, id desc);
+
+create table if not exists item_booking_summary (
+    item_id bigint primary key references items(id) on delete cascade,
+    last_booking_id bigint references bookings(id) on delete set null,
+    next_booking_id bigint references bookings(id) on delete set null,
+    next_start timestamp without time zone
+);
+
+create index if not exists ix_item_booking_summary_next_start on item_booking_summary (next_start);
+
+create table if not exists comments (
+    id bigint default nextval('comments_seq') primary key,
+    text varchar(255) not null,
+    item_id bigint references items(id),
+    author_id bigint references users(id) on delete cascade,
+    created_time timestamp without time zone
+);
+
+-- Базы, созданные до перехода на последовательности: identity снимается,
+-- последовательность один раз (пока к ней не обращались) выравнивается по max(id).
+alter table users alter column id drop identity if exists;
+alter table users alter column id set default nextval('users_seq');
+select setval('users_seq', (select coalesce(max(id), 0) + 1 from users), false)
+where not (select is_called from users_seq);
+alter table requests alter column id drop identity if exists;
+alter table requests alter column id set default nextval('requests_seq');
+select setval('requests_seq', (select coalesce(max(id), 0) + 1 from requests), false)
+where not (select is_called from requests_seq);
+alter table items alter column id drop identity if exists;
+alter table items alter column id set default nextval('items_seq');
+select setval('items_seq', (select coalesce(max(id), 0) + 1 from items), false)
+where not (select is_called from items_seq);
+alter table bookings alter column id drop identity if exists;
+alter table bookings alter column id set default nextval('bookings_seq');
+select setval('bookings_seq', (select coalesce(max(id), 0) + 1 from bookings), false)
+where not (select is_called from bookings_seq);
+alter table comments alter column id drop identity if exists;
+alter table comments alter column id set default nextval('comments_seq');
+select setval('comments_seq', (select coalesce(max(id), 0) + 1 from comments), false)
+where not (select is_called from comments_seq);
+
+-- Версии строк для ETag и оптимистической блокировки в базах, созданных до их появления.
+alter table users add column if not exists version bigint not null default 0;
+alter table requests add column if not exists version bigint not null default 0;
+alter table items add column if not exists version bigint not null default 0;
+alter table bookings add column if not exists version bigint not null default 0;
@@ -1,38 +1,64 @@
 drop all objects;
 
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists requests_seq start with 1 increment by 50;
+create sequence if not exists items_seq start with 1 increment by 50;
+create sequence if not exists bookings_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
+
 create table if not exists users (
-    id bigint generated by default as identity primary key,
+    id bigint default next value for users_seq primary key,
     name varchar(50) not null,
     email varchar(255) unique not null,
+    version bigint not null default 0,
     constraint uq_user_email unique (email)
 );
 
 create table if not exists requests (
-    id bigint generated by default  as identity primary key,
+    id bigint default next value for requests_seq primary key,
     description varchar(255) not null,
     created_time timestamp without time zone,
-    user_id bigint references users(id)
+    user_id bigint references users(id),
+    version bigint not null default 0
 );
 
 create table if not exists items (
-    id bigint generated by default  as identity primary key,
+    id bigint default next value for items_seq primary key,
     name varchar(50) not null,
     description varchar(255) not null,
     available boolean not null,
     owner_id bigint not null references users(id) on delete cascade,
-    request_id bigint references requests(id)
+    request_id bigint references requests(id),
+    version bigint not null default 0
 );
 
+create index if not exists ix_items_owner on items (owner_id);
+
 create table if not exists bookings (
-    id bigint generated by default  as identity primary key,
+    id bigint default next value for bookings_seq primary key,
     start_date timestamp without time zone not null,
     end_date timestamp without time zone not null,
     item_id  bigint not null references items(id),
     booker_id  bigint not null references users(id) on delete cascade,
-    status varchar(15) not null
+    status varchar(15) not null,
+    version bigint not null default 0
 );
+
+create index if not exists ix_bookings_item_status_period on bookings (item_id, status, start_date, end_date);
+create index if not exists ix_bookings_booker_start on bookings (booker_id, start_date desc, id desc);
+create index if not exists ix_bookings_item_start on bookings (item_id, start_date desc, id desc);
+
+create table if not exists item_booking_summary (
+    item_id bigint primary key references items(id) on delete cascade,
+    last_booking_id bigint references bookings(id) on delete set null,
+    next_booking_id bigint references bookings(id) on delete set null,
+    next_start timestamp without time zone
+);
+
+create index if not exists ix_item_booking_summary_next_start on item_booking_summary (next_start);
+
 create table if not exists comments (
-    id bigint generated by default  as identity primary key,
+    id bigint default next value for comments_seq primary key,
     text varchar(255) not null,
     item_id bigint references items(id),
     author_id bigint references users(id) on delete cascade,
@@ -0,0 +1,52 @@
+package ru.practicum.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Ответ отдается потоком, поэтому заголовка X-Next-Cursor нет:
+ * курсор следующей страницы строится по последнему бронированию (BookingCursor.after).
+ */
+@RestController
+@Validated
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+    private final ReactiveReadRepository repository;
+
+    @GetMapping
+    public Flux<BookingDto> getAllByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                           @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                           @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+                                           @RequestParam(name = "cursor", required = false) String cursor) {
+        State bookingState = parseState(state);
+        BookingCursor seek = cursor == null ? BookingCursor.FIRST : BookingCursor.decode(cursor);
+        long offset = cursor == null ? from : 0;
+        return repository.existsUser(userId)
+                .flatMapMany(exists -> exists
+                        ? repository.findBookingsByBooker(userId, bookingState, seek, offset, size)
+                        : Flux.error(new NotFoundException("Пользователь не найден с id: " + userId)));
+    }
+
+    private static State parseState(String state) {
+        try {
+            return State.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new BookingException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Поиск выполняется теми же запросами, что и SubstringItemSearchEngine и PostgresItemSearchEngine.
+ * Индекс Lucene живет в процессе ShareItApp, поэтому при shareit.search.engine=lucene
+ * поиск здесь не регистрируется, а не отдает другие результаты.
+ */
+@RestController
+@Validated
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("'${shareit.search.engine:lucene}' != 'lucene'")
+public class ReactiveItemController {
+    private final ReactiveReadRepository repository;
+
+    @GetMapping("/search")
+    public Flux<ItemDto> search(@RequestParam(name = "text") String searchText,
+                                @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+        log.info("Поиск предметов по запросу: {}", searchText);
+        return searchPage(searchText, from, size);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDto> searchStream(@RequestParam(name = "text") String searchText,
+                                      @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                      @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+        log.info("Потоковый поиск предметов по запросу: {}", searchText);
+        return searchPage(searchText, from, size);
+    }
+
+    private Flux<ItemDto> searchPage(String searchText, int from, int size) {
+        if (searchText.isBlank()) {
+            return Flux.empty();
+        }
+        int pageSize = Math.min(size, ItemController.MAX_SEARCH_SIZE);
+        return repository.searchItems(searchText.toLowerCase(), from, pageSize);
+    }
+}
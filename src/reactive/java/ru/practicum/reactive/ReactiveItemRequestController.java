@@ -0,0 +1,53 @@
+package ru.practicum.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestRespDto;
+
+import javax.validation.constraints.Min;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@Validated
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+public class ReactiveItemRequestController {
+    private final ReactiveReadRepository repository;
+
+    /**
+     * Страница чужих запросов читается целиком, чтобы одним запросом подгрузить вещи для всех ее запросов.
+     */
+    @GetMapping("/all")
+    public Flux<ItemRequestRespDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                           @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+        return repository.existsUser(userId)
+                .flatMapMany(exists -> exists
+                        ? repository.findRequestsNotByUser(userId, from, size)
+                        : Flux.error(new NotFoundException("Пользователь не найден с id: " + userId)))
+                .collectList()
+                .flatMapMany(requests -> requests.isEmpty()
+                        ? Flux.empty()
+                        : repository.findItemsByRequestIds(requests.stream()
+                                        .map(ItemRequestRespDto::getId)
+                                        .collect(Collectors.toList()))
+                                .collect(Collectors.groupingBy(ItemDto::getRequestId))
+                                .flatMapIterable(items -> withItems(requests, items)));
+    }
+
+    private static List<ItemRequestRespDto> withItems(List<ItemRequestRespDto> requests,
+                                                      Map<Long, List<ItemDto>> itemsByRequest) {
+        requests.forEach(request -> request.setItems(itemsByRequest.getOrDefault(request.getId(), List.of())));
+        return requests;
+    }
+}
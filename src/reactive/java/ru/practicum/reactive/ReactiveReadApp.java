@@ -0,0 +1,44 @@
+package ru.practicum.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import ru.practicum.shareit.exception.ErrorHandler;
+
+/**
+ * Отдельное неблокирующее приложение только для чтения: WebFlux на Netty и R2DBC
+ * поверх той же базы, что и основное ShareItApp. Обслуживает GET /items/search,
+ * GET /bookings и GET /requests/all, ответы с Accept: application/x-ndjson отдаются потоком
+ * с учетом скорости чтения клиента. Соединения без запросов не занимают потоков.
+ * main включает профиль reactive (порт 8081), для PostgreSQL добавляется --spring.profiles.active=postgres.
+ * Схему создает основное приложение, H2-файл при этом нельзя открыть из двух процессов.
+ * Лежит вне пакета ru.practicum.shareit, чтобы не попадать в сканирование ShareItApp, и собирается
+ * только в профиле Maven reactive: WebFlux и R2DBC не входят в classpath основного приложения.
+ * JDBC и JPA здесь не нужны, их автоконфигурация отключена.
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class})
+@Import(ErrorHandler.class)
+public class ReactiveReadApp {
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveReadApp.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+}
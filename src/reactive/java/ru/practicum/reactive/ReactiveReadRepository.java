@@ -0,0 +1,177 @@
+package ru.practicum.reactive;
+
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.PostgresItemSearchEngine;
+import ru.practicum.shareit.item.SubstringItemSearchEngine;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestRespDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Запросы неблокирующего API на чтение. Повторяют выборки JPA-репозиториев,
+ * но строки отдаются по мере чтения из курсора базы и столько, сколько запросил подписчик.
+ */
+@Repository
+public class ReactiveReadRepository {
+    private static final String ITEM_COLUMNS = "i.id, i.name, i.description, i.available, i.request_id ";
+    private static final String BOOKING_SELECT = "select b.id, b.start_date, b.end_date, b.status, " +
+            "u.id as booker_id, u.name as booker_name, u.email as booker_email, " +
+            "i.id as item_id, i.name as item_name, i.description as item_description, " +
+            "i.available as item_available, i.request_id as item_request_id " +
+            "from bookings as b " +
+            "join users as u on u.id = b.booker_id " +
+            "join items as i on i.id = b.item_id " +
+            "where b.booker_id = :userId ";
+
+    private final DatabaseClient databaseClient;
+    private final boolean fullTextSearch;
+
+    public ReactiveReadRepository(DatabaseClient databaseClient,
+                                  @Value("${shareit.search.engine:lucene}") String searchEngine) {
+        this.databaseClient = databaseClient;
+        this.fullTextSearch = "postgres".equals(searchEngine);
+    }
+
+    public Mono<Boolean> existsUser(Long userId) {
+        return databaseClient.sql("select count(*) from users where id = :id")
+                .bind("id", userId)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    /**
+     * Доступные вещи по тексту: полнотекстовый поиск на PostgreSQL (shareit.search.engine=postgres),
+     * иначе поиск подстроки в названии и описании.
+     */
+    public Flux<ItemDto> searchItems(String text, long offset, long limit) {
+        DatabaseClient.GenericExecuteSpec spec;
+        if (fullTextSearch) {
+            String query = PostgresItemSearchEngine.toTsQuery(text);
+            if (query.isEmpty()) {
+                return Flux.empty();
+            }
+            spec = databaseClient.sql("select " + ITEM_COLUMNS +
+                            "from items as i, to_tsquery('simple', :query) as q " +
+                            "where i.available = true and i.search_vector @@ q " +
+                            "order by ts_rank(i.search_vector, q) desc, i.id " +
+                            "limit :limit offset :offset")
+                    .bind("query", query);
+        } else {
+            spec = databaseClient.sql("select " + ITEM_COLUMNS +
+                            "from items as i " +
+                            "where i.available = true and " +
+                            "(lower(i.name) like :pattern escape '!' or " +
+                            "lower(i.description) like :pattern escape '!') " +
+                            "order by i.id " +
+                            "limit :limit offset :offset")
+                    .bind("pattern", SubstringItemSearchEngine.toLikePattern(text));
+        }
+        return spec.bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveReadRepository::toItemDto)
+                .all();
+    }
+
+    public Flux<ItemDto> findItemsByRequestIds(Collection<Long> requestIds) {
+        return databaseClient.sql("select " + ITEM_COLUMNS +
+                        "from items as i " +
+                        "where i.request_id in (:requestIds) " +
+                        "order by i.id")
+                .bind("requestIds", requestIds)
+                .map(ReactiveReadRepository::toItemDto)
+                .all();
+    }
+
+    /**
+     * Чужие запросы вещей, от новых к старым, без вложенных вещей.
+     */
+    public Flux<ItemRequestRespDto> findRequestsNotByUser(Long userId, long offset, long limit) {
+        return databaseClient.sql("select r.id, r.description, r.created_time, r.user_id " +
+                        "from requests as r " +
+                        "where r.user_id <> :userId " +
+                        "order by r.created_time desc " +
+                        "limit :limit offset :offset")
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new ItemRequestRespDto(row.get("id", Long.class), row.get("description", String.class),
+                        row.get("created_time", LocalDateTime.class), row.get("user_id", Long.class),
+                        new ArrayList<>()))
+                .all();
+    }
+
+    /**
+     * Бронирования пользователя по убыванию (start_date, id) строго после курсора, фильтр по state
+     * совпадает с BookingRepository.
+     */
+    public Flux<BookingDto> findBookingsByBooker(Long userId, State state, BookingCursor cursor,
+                                                 long offset, long limit) {
+        String condition;
+        boolean withNow = true;
+        switch (state) {
+            case CURRENT:
+                condition = "and :now between b.start_date and b.end_date ";
+                break;
+            case PAST:
+                condition = "and b.end_date < :now ";
+                break;
+            case FUTURE:
+                condition = "and b.start_date > :now ";
+                break;
+            case WAITING:
+                condition = "and b.status = 'WAITING' and b.start_date > :now ";
+                break;
+            case REJECTED:
+                condition = "and b.status = 'REJECTED' ";
+                withNow = false;
+                break;
+            default:
+                condition = "";
+                withNow = false;
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(BOOKING_SELECT + condition +
+                        "and (b.start_date < :seekStart or (b.start_date = :seekStart and b.id < :seekId)) " +
+                        "order by b.start_date desc, b.id desc " +
+                        "limit :limit offset :offset")
+                .bind("userId", userId)
+                .bind("seekStart", cursor.getStart())
+                .bind("seekId", cursor.getId())
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (withNow) {
+            spec = spec.bind("now", LocalDateTime.now());
+        }
+        return spec.map(ReactiveReadRepository::toBookingDto).all();
+    }
+
+    private static ItemDto toItemDto(Row row) {
+        return new ItemDto(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("available", Boolean.class),
+                row.get("request_id", Long.class));
+    }
+
+    private static BookingDto toBookingDto(Row row) {
+        return new BookingDto(row.get("id", Long.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                Status.valueOf(row.get("status", String.class)),
+                new UserDto(row.get("booker_id", Long.class), row.get("booker_name", String.class),
+                        row.get("booker_email", String.class)),
+                new ItemDto(row.get("item_id", Long.class), row.get("item_name", String.class),
+                        row.get("item_description", String.class), row.get("item_available", Boolean.class),
+                        row.get("item_request_id", Long.class)));
+    }
+}
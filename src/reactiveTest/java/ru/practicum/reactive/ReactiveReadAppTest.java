@@ -0,0 +1,161 @@
+package ru.practicum.reactive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = ReactiveReadApp.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=always",
+        "shareit.search.engine=substring"})
+@ActiveProfiles(ReactiveReadApp.PROFILE)
+@AutoConfigureWebTestClient
+public class ReactiveReadAppTest {
+    private final LocalDateTime testTime = LocalDateTime.now().withNano(0);
+
+    @Autowired
+    private WebTestClient client;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void persistData() {
+        execute("delete from bookings");
+        execute("delete from items");
+        execute("delete from requests");
+        execute("delete from users");
+        execute("insert into users (id, name, email) values (1, 'owner', 'owner@email.com'), " +
+                "(2, 'booker', 'booker@email.com')");
+        execute("insert into requests (id, description, created_time, user_id) " +
+                "values (1, 'need drill', '" + testTime + "', 2)");
+        execute("insert into items (id, name, description, available, owner_id, request_id) values " +
+                "(1, 'Drill', 'cordless drill', true, 1, 1), " +
+                "(2, 'Saw', 'hand saw', true, 1, null), " +
+                "(3, 'Old drill', 'broken', false, 1, null)");
+        execute("insert into bookings (id, start_date, end_date, item_id, booker_id, status) values " +
+                "(1, '" + testTime.minusDays(3) + "', '" + testTime.minusDays(2) + "', 1, 2, 'REJECTED'), " +
+                "(2, '" + testTime.minusDays(1) + "', '" + testTime.plusDays(1) + "', 1, 2, 'APPROVED'), " +
+                "(3, '" + testTime.plusDays(2) + "', '" + testTime.plusDays(3) + "', 2, 2, 'WAITING')");
+    }
+
+    @Test
+    public void searchTest() {
+        client.get().uri("/items/search?text=DRILL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ItemDto.class)
+                .contains(new ItemDto(1L, "Drill", "cordless drill", true, 1L))
+                .hasSize(1);
+
+        client.get().uri("/items/search?text=")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ItemDto.class)
+                .hasSize(0);
+    }
+
+    @Test
+    public void searchStreamTest() {
+        StepVerifier.create(client.get().uri("/items/search?text=a")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(ItemDto.class)
+                        .getResponseBody()
+                        .map(ItemDto::getId))
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier.create(client.get().uri("/items/search?text=d&from=1&size=1")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(ItemDto.class)
+                        .getResponseBody()
+                        .map(ItemDto::getId))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void getAllByBookerTest() {
+        client.get().uri("/bookings?size=2")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookingDto.class)
+                .value(bookings -> {
+                    assertEquals(2, bookings.size());
+                    assertEquals(3L, bookings.get(0).getId());
+                    assertEquals("booker", bookings.get(0).getBooker().getName());
+                    assertEquals("Saw", bookings.get(0).getItem().getName());
+                    assertEquals(2L, bookings.get(1).getId());
+                });
+
+        client.get().uri("/bookings?from=1&size=2")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookingDto.class)
+                .value(bookings -> {
+                    assertEquals(2, bookings.size());
+                    assertEquals(2L, bookings.get(0).getId());
+                    assertEquals(1L, bookings.get(1).getId());
+                });
+
+        client.get().uri("/bookings?state=CURRENT")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookingDto.class)
+                .value(bookings -> assertEquals(2L, bookings.get(0).getId()))
+                .hasSize(1);
+
+        client.get().uri("/bookings?state=UNKNOWN")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: UNSUPPORTED_STATUS");
+
+        client.get().uri("/bookings")
+                .header("X-Sharer-User-Id", "100")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void getAllRequestsTest() {
+        client.get().uri("/requests/all")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].description").isEqualTo("need drill")
+                .jsonPath("$[0].items[0].name").isEqualTo("Drill");
+
+        client.get().uri("/requests/all")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    private void execute(String sql) {
+        StepVerifier.create(databaseClient.sql(sql).then()).verifyComplete();
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Фиксирует точное количество SQL-запросов для каждого метода сервисов.
+ * Данные содержат по несколько вещей, бронирований и комментариев,
+ * поэтому N+1 сразу меняет ожидаемые значения. Кэш второго уровня Hibernate перед каждым замером
+ * очищается, считаются запросы при холодном кэше, в том числе select пользователя при проверке его существования.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class QueryCountTest {
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    private final LocalDateTime testTime = LocalDateTime.now();
+    private User owner;
+    private User booker;
+    private User requester;
+    private ItemRequest request;
+
+    @BeforeEach
+    public void persistData() {
+        owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        requester = userRepository.save(new User(null, "requester", "requester@email.com"));
+        request = itemRequestRepository.save(new ItemRequest(null, "desc", testTime, requester));
+
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(new Item(null, "name" + i, "desc" + i, true, owner, request));
+            itemSearchEngine.index(item);
+            bookingRepository.save(booking(item, testTime.minusDays(3), testTime.minusDays(2), Status.APPROVED));
+            bookingRepository.save(booking(item, testTime.plusDays(2), testTime.plusDays(3), Status.APPROVED));
+            bookingRepository.save(booking(item, testTime.plusDays(4), testTime.plusDays(5), Status.WAITING));
+            commentRepository.save(new Comment(null, "text" + i, item, booker, testTime));
+            commentRepository.save(new Comment(null, "text" + i, item, owner, testTime));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DirtiesContext
+    public void userServiceQueryCountTest() {
+        UserDto created = UserDto.builder().name("new").email("new@email.com").build();
+
+        assertEquals(1, countStatements(() -> userService.create(created)));
+        assertEquals(1, countStatements(() -> userService.getAll()));
+        assertEquals(1, countStatements(() -> userService.getById(owner.getId())));
+        assertEquals(2, countStatements(() -> userService.update(UserDto.builder()
+                .id(owner.getId()).name("upd").build())));
+        assertEquals(4, countStatements(() -> userService.delete(4L)));
+    }
+
+    @Test
+    @DirtiesContext
+    public void itemServiceQueryCountTest() {
+        ItemDto itemDto = ItemDto.builder().name("new").description("new").available(true).build();
+        CommentDto commentDto = CommentDto.builder()
+                .text("text")
+                .authorId(booker.getId())
+                .itemId(1L)
+                .created(testTime)
+                .build();
+
+        assertEquals(2, countStatements(() -> itemService.create(itemDto, owner.getId())));
+        assertEquals(2, countStatements(() -> itemService.update(ItemDto.builder()
+                .id(1L).name("upd").build(), owner.getId())));
+        assertEquals(4, countStatements(() -> itemService.getById(1L, owner.getId())));
+        assertEquals(3, countStatements(() -> itemService.getById(1L, booker.getId())));
+        assertEquals(4, countStatements(() -> itemService.getByUserId(owner.getId())));
+        assertEquals(1, countStatements(() -> itemService.search("name", 0, 10)));
+        assertEquals(4, countStatements(() -> itemService.createComment(commentDto)));
+        assertEquals(1, countStatements(() -> itemService.getByRequest(request.getId())));
+    }
+
+    @Test
+    @DirtiesContext
+    public void bookingServiceQueryCountTest() {
+        BookingReqDto bookingReqDto = BookingReqDto.builder()
+                .itemId(1L)
+                .start(testTime.plusDays(10))
+                .end(testTime.plusDays(11))
+                .build();
+
+        assertEquals(4, countStatements(() -> bookingService.create(bookingReqDto, booker.getId())));
+        assertEquals(4, countStatements(() -> bookingService.update(3L, owner.getId(), false)));
+        assertEquals(2, countStatements(() -> bookingService.getById(1L, booker.getId())));
+        assertEquals(2, countStatements(() -> bookingService.getAllByBooker(booker.getId(), State.ALL, 0, 10)));
+        assertEquals(2, countStatements(() -> bookingService.getAllByOwner(owner.getId(), State.ALL, 0, 10)));
+    }
+
+    @Test
+    @DirtiesContext
+    public void itemRequestServiceQueryCountTest() {
+        ItemRequestDto itemRequestDto = ItemRequestDto.builder().description("new").build();
+        for (int i = 0; i < 2; i++) {
+            ItemRequest otherRequest = itemRequestRepository.save(new ItemRequest(null, "desc", testTime, requester));
+            itemRepository.save(new Item(null, "name", "desc", true, owner, otherRequest));
+        }
+
+        assertEquals(2, countStatements(() -> itemRequestService.create(itemRequestDto, testTime,
+                requester.getId())));
+        assertEquals(3, countStatements(() -> itemRequestService.getAllByRequester(requester.getId())));
+        assertEquals(3, countStatements(() -> itemRequestService.getAll(owner.getId(), 0, 10)));
+        assertEquals(3, countStatements(() -> itemRequestService.getById(owner.getId(), request.getId())));
+    }
+
+    private long countStatements(Runnable action) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
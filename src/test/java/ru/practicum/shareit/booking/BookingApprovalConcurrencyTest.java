@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.approval.mode=queued")
+public class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    @DirtiesContext
+    public void queuedApprovalOfOverlappingBookingsTest() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(bookingService.create(BookingReqDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + THREADS))
+                    .build(), booker.getId()).getId());
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.update(bookingId, owner.getId(), true);
+                    approved.incrementAndGet();
+                } catch (ItemNotAvailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, bookingRepository.findAllByItem_Id(item.getId()).stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .count());
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "shareit.booking.availability-index=true")
+@Import(BookingAvailabilityIndex.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingAvailabilityIndexTest {
+    @Autowired
+    private TestEntityManager testEM;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final User owner = new User(null, "owner","owner@email.com");
+    private final User booker = new User(null, "booker","booker@email.com");
+    private final Item item = new Item(null, "name", "desc",
+            true, owner, null);
+    private final LocalDateTime testTime = LocalDateTime.now().withNano(0);
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    public void persistData() {
+        testEM.persist(owner);
+        testEM.persist(booker);
+        testEM.persist(item);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime start = testTime.plusHours(random.nextInt(5000));
+            testEM.persist(Booking.builder()
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(48)))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.values()[random.nextInt(3)])
+                    .build());
+        }
+        testEM.flush();
+
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    public void indexMatchesDatabaseTest() {
+        List<Booking> bookings = bookingRepository.findAllByItem_Id(item.getId());
+
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime start = testTime.plusHours(random.nextInt(5200));
+            LocalDateTime end = start.plusHours(random.nextInt(24));
+
+            boolean overlapsInDb = bookings.stream()
+                    .anyMatch(b -> b.getStatus().equals(Status.APPROVED) &&
+                            !(start.isAfter(b.getEnd()) || end.isBefore(b.getStart())));
+
+            assertEquals(overlapsInDb, availabilityIndex.overlaps(item.getId(), start, end));
+        }
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        LocalDateTime start = testTime.minusYears(1);
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+
+        assertFalse(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+
+        availabilityIndex.add(booking);
+        assertTrue(availabilityIndex.overlaps(item.getId(), start.plusHours(1), start.plusHours(2)));
+        assertTrue(availabilityIndex.overlaps(item.getId(), start.minusDays(1), start));
+
+        availabilityIndex.remove(booking);
+        assertFalse(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+        assertFalse(availabilityIndex.overlaps(100L, start, start.plusHours(1)));
+    }
+
+    @Test
+    public void rollbackReleasesSlotTest() {
+        LocalDateTime start = testTime.minusYears(1);
+        Booking booking = Booking.builder().id(10_000L).start(start).end(start.plusDays(1)).item(item).build();
+        TransactionTemplate transaction = newTransaction();
+
+        transaction.executeWithoutResult(status -> {
+            assertTrue(availabilityIndex.tryAdd(booking));
+            status.setRollbackOnly();
+        });
+        assertFalse(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+
+        transaction.executeWithoutResult(status -> assertTrue(availabilityIndex.tryAdd(booking)));
+        assertTrue(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+    }
+
+    @Test
+    public void deletedBookingsEvictedAfterCommitTest() {
+        LocalDateTime start = testTime.minusYears(1);
+        Booking booking = Booking.builder().id(10_000L).start(start).end(start.plusDays(1)).item(item).build();
+        BookingPeriod period = new BookingPeriod(booking.getId(), item.getId(), booking.getStart(), booking.getEnd());
+        availabilityIndex.add(booking);
+        TransactionTemplate transaction = newTransaction();
+
+        transaction.executeWithoutResult(status -> {
+            availabilityIndex.onDeleted(List.of(period), List.of());
+            status.setRollbackOnly();
+        });
+        assertTrue(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+
+        transaction.executeWithoutResult(status -> {
+            availabilityIndex.onDeleted(List.of(period), List.of());
+            assertTrue(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+        });
+        assertFalse(availabilityIndex.overlaps(item.getId(), start, start.plusHours(1)));
+
+        transaction.executeWithoutResult(status -> availabilityIndex.onDeleted(List.of(), List.of(item.getId())));
+        assertFalse(availabilityIndex.overlaps(item.getId(), testTime, testTime.plusYears(1)));
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,7 +21,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -75,6 +80,47 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item.id", is(bookingDto.getItem().getId()), Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    public void createBookingBatch() {
+        BookingReqDto bookingReqDto = BookingReqDto.builder()
+                .itemId(1L)
+                .start(startTime.plusHours(1))
+                .end(startTime.plusDays(1))
+                .build();
+
+        when(bookingService.createBatch(List.of(bookingReqDto, bookingReqDto), 1L))
+                .thenReturn(List.of(
+                        BookingBatchResultDto.builder().index(0).booking(bookingDto).build(),
+                        BookingBatchResultDto.builder().index(1).error("Время для бронирования уже занято").build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(bookingReqDto, bookingReqDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Время для бронирования уже занято")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void createBookingBatchWithNullEntry() {
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Пустая запись в пакете с индексом: 0")));
+
+        verify(bookingService, never()).createBatch(any(), any());
+    }
+
     @Test
     @SneakyThrows
     public void createBookingNotValidByNullItemId() {
@@ -201,6 +247,32 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id", is(bookingDto.getItem().getId()), Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    public void getAllBookingsByBookerWithCursor() {
+        BookingCursor cursor = new BookingCursor(startTime.plusDays(2), 5L);
+        when(bookingService.getAllByBooker(1L, State.ALL, cursor, 1))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings?size=1&cursor=" + cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.after(bookingDto).encode()))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void getAllBookingsByBookerFailByWrongCursor() {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings?cursor=wrong")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @SneakyThrows
     public void getAllBookingsByBookerFailByWrongState() {
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 64 потока одновременно подтверждают пересекающиеся бронирования нескольких вещей.
+ * Индекс свободного времени выключен, поэтому от двойного подтверждения защищает только ItemLock:
+ * без него проверка пересечения и смена статуса в разных транзакциях проходят одновременно.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.availability-index=false")
+public class BookingLockStressTest {
+    private static final int THREADS = 64;
+    private static final int ROUNDS = 10;
+    private static final int ITEMS = 4;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    @DirtiesContext
+    public void noDoubleBookingsTest() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "name" + i, "desc" + i, true, owner, null)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime base = LocalDateTime.now().plusDays(1 + round).withNano(0);
+            List<Long> bookingIds = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                bookingIds.add(bookingService.create(BookingReqDto.builder()
+                        .itemId(items.get(t % ITEMS).getId())
+                        .start(base.plusMinutes(t))
+                        .end(base.plusHours(2))
+                        .build(), booker.getId()).getId());
+            }
+
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Long bookingId : bookingIds) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    try {
+                        bookingService.update(bookingId, owner.getId(), true);
+                        return true;
+                    } catch (ItemNotAvailableException | BookingConflictException e) {
+                        // время уже занято - ожидаемый отказ
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+            int approved = 0;
+            for (Future<Boolean> future : futures) {
+                approved += future.get() ? 1 : 0;
+            }
+            assertEquals(ITEMS, approved, "Раунд " + round);
+        }
+        executor.shutdown();
+
+        for (Item item : items) {
+            List<Booking> approvedBookings = bookingRepository.findAllByItem_Id(item.getId()).stream()
+                    .filter(booking -> booking.getStatus() == Status.APPROVED)
+                    .sorted(Comparator.comparing(Booking::getStart))
+                    .collect(Collectors.toList());
+            assertEquals(ROUNDS, approvedBookings.size());
+            for (int i = 1; i < approvedBookings.size(); i++) {
+                assertTrue(approvedBookings.get(i).getStart().isAfter(approvedBookings.get(i - 1).getEnd()),
+                        "Пересекающиеся бронирования вещи " + item.getId());
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -17,6 +18,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -60,6 +64,8 @@ public class BookingRepositoryTest {
             .build();
 
     private final Pageable pageable = PageRequest.of(0, 10);
+    private final LocalDateTime seekStart = BookingCursor.FIRST.getStart();
+    private final Long seekId = BookingCursor.FIRST.getId();
 
     @BeforeEach
     public void persistData() {
@@ -86,14 +92,16 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllByBooker(2L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllByBooker(2L,
+                seekStart, seekId, pageable);
 
         assertEquals(3, bookings.size());
     }
 
     @Test
     public void getAllCurrentByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllCurrentByBooker(2L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllCurrentByBooker(2L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(2L, bookings.get(0).getId());
@@ -102,7 +110,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllPastByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllPastByBooker(2L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllPastByBooker(2L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(1L, bookings.get(0).getId());
@@ -110,7 +119,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllFutureByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllFutureByBooker(2L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllFutureByBooker(2L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(3L, bookings.get(0).getId());
@@ -118,7 +128,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllWaitingByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllWaitingByBooker(2L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllWaitingByBooker(2L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(3L, bookings.get(0).getId());
@@ -127,7 +138,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllRejectedByBookerTest() {
-        List<Booking> bookings = bookingRepository.findAllRejectedByBooker(2L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllRejectedByBooker(2L,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(1L, bookings.get(0).getId());
@@ -136,14 +148,16 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllByOwner(1L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllByOwner(1L,
+                seekStart, seekId, pageable);
 
         assertEquals(3, bookings.size());
     }
 
     @Test
     public void getAllCurrentByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllCurrentByOwner(1L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllCurrentByOwner(1L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(2L, bookings.get(0).getId());
@@ -152,7 +166,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllPastByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllPastByOwner(1L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllPastByOwner(1L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(1L, bookings.get(0).getId());
@@ -160,7 +175,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllFutureByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllFutureByOwner(1L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllFutureByOwner(1L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(3L, bookings.get(0).getId());
@@ -168,7 +184,8 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllWaitingByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllWaitingByOwner(1L, testTime, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllWaitingByOwner(1L, testTime,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(3L, bookings.get(0).getId());
@@ -177,13 +194,85 @@ public class BookingRepositoryTest {
 
     @Test
     public void getAllRejectedByOwnerTest() {
-        List<Booking> bookings = bookingRepository.findAllRejectedByOwner(1L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAllRejectedByOwner(1L,
+                seekStart, seekId, pageable);
 
         assertEquals(1, bookings.size());
         assertEquals(1L, bookings.get(0).getId());
         assertEquals(Status.REJECTED, bookings.get(0).getStatus());
     }
 
+    @Test
+    public void getAllByBookerProjectionTest() {
+        List<BookingDto> bookings = bookingRepository.findAllByBooker(2L,
+                seekStart, seekId, pageable);
+
+        assertEquals(3L, bookings.get(0).getId());
+        assertEquals(Status.WAITING, bookings.get(0).getStatus());
+        assertEquals(2L, bookings.get(0).getBooker().getId());
+        assertEquals("booker", bookings.get(0).getBooker().getName());
+        assertEquals("booker@email.com", bookings.get(0).getBooker().getEmail());
+        assertEquals(1L, bookings.get(0).getItem().getId());
+        assertEquals("name", bookings.get(0).getItem().getName());
+        assertEquals("desc", bookings.get(0).getItem().getDescription());
+        assertTrue(bookings.get(0).getItem().getAvailable());
+        assertNull(bookings.get(0).getItem().getRequestId());
+    }
+
+    @Test
+    public void getAllByBookerWithCursorTest() {
+        testEM.flush();
+        testEM.clear();
+
+        List<BookingDto> firstPage = bookingRepository.findAllByBooker(2L,
+                seekStart, seekId, PageRequest.of(0, 2));
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingRepository.findAllByBooker(2L,
+                last.getStart(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(2, firstPage.size());
+        assertEquals(3L, firstPage.get(0).getId());
+        assertEquals(2L, firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(1L, secondPage.get(0).getId());
+    }
+
+    @Test
+    public void findLastAndNextApprovedByItemIdsTest() {
+        bookingRepository.save(Booking.builder()
+                .start(testTime.plusDays(5))
+                .end(testTime.plusDays(6))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(testTime.plusDays(7))
+                .end(testTime.plusDays(8))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApprovedByItemIds(List.of(1L, 2L), testTime);
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.stream().anyMatch(b -> b.getId().equals(2L)));
+        assertTrue(bookings.stream().anyMatch(b -> b.getId().equals(4L)));
+    }
+
+    @Test
+    public void existsApprovedOverlapTest() {
+        assertTrue(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                Status.APPROVED, testTime.plusHours(1), testTime));
+        assertTrue(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                Status.APPROVED, testTime.plusDays(5), testTime.plusHours(23)));
+        assertFalse(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                Status.APPROVED, testTime.plusDays(3), testTime.plusDays(2)));
+        assertFalse(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                Status.APPROVED, testTime.minusDays(2), testTime.minusDays(3)));
+    }
+
 
 
 
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 import ru.practicum.shareit.exception.BookingByOwnerException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -19,10 +23,15 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +46,16 @@ public class BookingServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingMetrics bookingMetrics;
+    @Mock
+    private ObjectProvider<BookingApprovalExecutor> approvalExecutor;
+    @Mock
+    private ItemLock itemLock;
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
     private final UserMapper userMapper = new UserMapper();
     private final ItemMapper itemMapper = new ItemMapper();
 
@@ -63,6 +82,13 @@ public class BookingServiceImplTest {
             .item(item)
             .build();
 
+    @BeforeEach
+    public void passThroughItemLock() {
+        lenient().when(itemLock.withLock(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
+    }
+
     @Test
     public void createBookingValidTest() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
@@ -134,7 +160,7 @@ public class BookingServiceImplTest {
 
     @Test
     public void updateBookingApprovedByOwnerTest() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
 
         Booking bookingWithUpdateStatus = Booking.builder()
@@ -161,9 +187,51 @@ public class BookingServiceImplTest {
                 bookingService.update(1L, 1L, true).getStatus());
     }
 
+    @Test
+    public void updateBookingApprovedOverlapTest() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
+        when(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                Status.APPROVED, validBooking.getEnd(), validBooking.getStart())).thenReturn(true);
+
+        assertThrows(ItemNotAvailableException.class,
+                () -> bookingService.update(1L, 1L, true));
+        assertEquals(Status.WAITING, validBooking.getStatus());
+        verify(bookingMetrics).rejectedOverlap();
+    }
+
+    @Test
+    public void updateBookingApprovedIndexedOverlapTest() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
+        when(availabilityIndex.isEnabled()).thenReturn(true);
+        when(availabilityIndex.tryAdd(validBooking)).thenReturn(false);
+
+        assertThrows(ItemNotAvailableException.class,
+                () -> bookingService.update(1L, 1L, true));
+        assertEquals(Status.WAITING, validBooking.getStatus());
+        verify(bookingRepository, never())
+                .existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(any(), any(), any(), any());
+        verify(bookingMetrics).rejectedOverlap();
+    }
+
+    @Test
+    public void updateBookingConcurrentModificationTest() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
+        when(availabilityIndex.isEnabled()).thenReturn(true);
+        when(availabilityIndex.tryAdd(validBooking)).thenReturn(true);
+        when(bookingRepository.saveAndFlush(validBooking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.update(1L, 1L, true));
+        verify(availabilityIndex).remove(validBooking);
+    }
+
     @Test
     public void updateBookingNotByOwnerTest() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
 
         assertThrows(BookingByOwnerException.class,
@@ -172,7 +240,7 @@ public class BookingServiceImplTest {
 
     @Test
     public void getByIdTest() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
 
         BookingDto bookingDtoExpected = BookingDto.builder()
@@ -191,13 +259,7 @@ public class BookingServiceImplTest {
 
     @Test
     public void getByIdFailByRandomUserTest() {
-        User randomUser = User.builder()
-                .id(10L)
-                .name("random")
-                .email("random@email.com")
-                .build();
-
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(randomUser));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(validBooking));
 
         assertThrows(BookingByOwnerException.class, () -> bookingService.getById(1L, 10L));
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingReqDto;
 import ru.practicum.shareit.exception.BookingByOwnerException;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.ItemService;
@@ -19,7 +22,13 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,13 +44,15 @@ public class BookingServiceIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private final User owner = new User(null, "owner","owner@email.com");
     private final User booker = new User(null, "booker","booker@email.com");
     private final Item item = new Item(null, "name", "desc",
             true, owner, null);
 
-    private final LocalDateTime testTime = LocalDateTime.now();
+    private final LocalDateTime testTime = LocalDateTime.now().withNano(0);
 
     private final BookingReqDto booking1 = BookingReqDto.builder()
             .start(testTime.plusDays(1))
@@ -129,6 +140,119 @@ public class BookingServiceIntegrationTest {
                 () -> bookingService.update(1L, 2L, true));
     }
 
+    @Test
+    @DirtiesContext
+    public void rejectionMetricsTest() {
+        userRepository.save(owner);
+        userRepository.save(booker);
+        itemRepository.save(item);
+
+        bookingService.create(booking1, 2L);
+        bookingService.update(1L, 1L, true);
+
+        assertThrows(BookingByOwnerException.class, () -> bookingService.create(booking2, 1L));
+        assertThrows(ItemNotAvailableException.class, () -> bookingService.create(booking1, 2L));
+
+        assertEquals(1, rejected("by_owner"));
+        assertEquals(1, rejected("overlap"));
+        assertEquals(0, rejected("not_available"));
+    }
+
+    @Test
+    @DirtiesContext
+    public void offsetPaginationTest() {
+        userRepository.save(owner);
+        userRepository.save(booker);
+        itemRepository.save(item);
+        bookingService.create(booking1, 2L);
+        bookingService.create(booking2, 2L);
+        bookingService.create(booking3, 2L);
+
+        List<BookingDto> byBooker = bookingService.getAllByBooker(2L, State.ALL, 1, 2);
+        List<BookingDto> byOwner = bookingService.getAllByOwner(1L, State.ALL, 1, 2);
+
+        assertEquals(List.of(2L, 1L), List.of(byBooker.get(0).getId(), byBooker.get(1).getId()));
+        assertEquals(List.of(2L, 1L), List.of(byOwner.get(0).getId(), byOwner.get(1).getId()));
+    }
+
+    @Test
+    @DirtiesContext
+    public void concurrentApprovalTest() throws Exception {
+        userRepository.save(owner);
+        userRepository.save(booker);
+        itemRepository.save(item);
+        bookingService.create(booking1, 2L);
+        bookingService.create(BookingReqDto.builder()
+                .start(booking1.getStart().plusHours(1))
+                .end(booking1.getEnd().plusHours(1))
+                .itemId(1L)
+                .build(), 2L);
+
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long bookingId = 1; bookingId <= 2; bookingId++) {
+            long id = bookingId;
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.update(id, 1L, true);
+                    return true;
+                } catch (ItemNotAvailableException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            approved += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
 
+        assertEquals(1, approved);
+    }
 
+    @Test
+    @DirtiesContext
+    public void createBatchTest() {
+        userRepository.save(owner);
+        userRepository.save(booker);
+        itemRepository.save(item);
+        itemRepository.save(new Item(null, "unavailable", "desc", false, owner, null));
+        bookingService.create(booking1, 2L);
+        bookingService.update(1L, 1L, true);
+
+        List<BookingBatchResultDto> results = bookingService.createBatch(Arrays.asList(
+                booking2,
+                booking1,
+                BookingReqDto.builder().itemId(2L).start(booking3.getStart()).end(booking3.getEnd()).build(),
+                BookingReqDto.builder().itemId(1000L).start(booking3.getStart()).end(booking3.getEnd()).build(),
+                BookingReqDto.builder().itemId(1L).start(booking3.getEnd()).end(booking3.getStart()).build(),
+                BookingReqDto.builder().itemId(1L).end(booking3.getEnd()).build(),
+                booking3,
+                null), 2L);
+
+        assertEquals(8, results.size());
+        assertNull(results.get(0).getError());
+        assertEquals(Status.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals("Время для бронирования уже занято", results.get(1).getError());
+        assertEquals("Вещь недоступна для бронирования", results.get(2).getError());
+        assertEquals("Вещь не найдена с id: 1000", results.get(3).getError());
+        assertEquals("Время старта должно быть раньше времени окончания", results.get(4).getError());
+        assertTrue(results.get(5).getError().startsWith("start: "));
+        assertEquals(6, results.get(6).getIndex());
+        assertEquals("Пустая запись", results.get(7).getError());
+
+        BookingDto created = bookingService.getById(results.get(6).getBooking().getId(), 2L);
+        assertEquals(booking3.getStart(), created.getStart());
+        assertEquals(1L, created.getItem().getId());
+        assertEquals(Status.APPROVED,
+                bookingService.update(results.get(0).getBooking().getId(), 1L, true).getStatus());
+        assertThrows(NotFoundException.class, () -> bookingService.createBatch(List.of(booking2), 1000L));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get(BookingMetrics.REJECTED).tag("reason", reason).counter().count();
+    }
 }
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingReqDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.summary.sweep-interval-ms=3600000")
+public class ItemBookingSummaryTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private ItemBookingSummaryUpdater summaryUpdater;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DirtiesContext
+    public void summaryTest() {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        BookingDto future = bookingService.create(BookingReqDto.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(2))
+                .end(now.plusDays(3))
+                .build(), booker.getId());
+        bookingService.update(future.getId(), owner.getId(), true);
+
+        ItemBookingDto owned = itemService.getById(item.getId(), owner.getId());
+        assertNull(owned.getLastBooking());
+        assertEquals(future.getId(), owned.getNextBooking().getId());
+        assertEquals(now.plusDays(2), summaryRepository.findById(item.getId()).orElseThrow().getNextStart());
+
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker,
+                Status.APPROVED, null));
+        Booking soon = bookingRepository.save(new Booking(null, now.plusHours(1), now.plusHours(2), item, booker,
+                Status.APPROVED, null));
+        summaryUpdater.rebuild();
+
+        owned = itemService.getById(item.getId(), owner.getId());
+        assertEquals(past.getId(), owned.getLastBooking().getId());
+        assertEquals(soon.getId(), owned.getNextBooking().getId());
+
+        LocalDateTime later = soon.getStart();
+        assertTrue(summaryRepository.findById(item.getId()).orElseThrow().isStale(later));
+        ItemBookingSummary computed = summaryUpdater.compute(List.of(item.getId()), later).get(item.getId());
+        assertEquals(soon.getId(), computed.getLastBooking().getId());
+        assertEquals(future.getId(), computed.getNextBooking().getId());
+
+        summaryUpdater.sweep(later);
+        ItemBookingSummary summary = summaryRepository.findAllWithBookingsByItemIdIn(List.of(item.getId())).get(0);
+        assertEquals(soon.getId(), summary.getLastBooking().getId());
+        assertEquals(future.getId(), summary.getNextBooking().getId());
+        assertEquals(now.plusDays(2), summary.getNextStart());
+    }
+
+    @Test
+    @DirtiesContext
+    public void staleSummaryIsComputedOnReadTest() {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking started = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker,
+                Status.APPROVED, null));
+        Booking future = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                Status.APPROVED, null));
+        // сборщик еще не перенес начавшееся бронирование в последние
+        summaryRepository.save(new ItemBookingSummary(item.getId(), null, started, started.getStart()));
+
+        ItemBookingDto owned = itemService.getById(item.getId(), owner.getId());
+
+        assertEquals(started.getId(), owned.getLastBooking().getId());
+        assertEquals(future.getId(), owned.getNextBooking().getId());
+    }
+
+    @Test
+    @DirtiesContext
+    public void approvalAndRebuildPickSameNextTest() {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking earlierStart = bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(12), item,
+                booker, Status.APPROVED, null));
+        summaryUpdater.rebuild();
+
+        // пересекающиеся подтвержденные бронирования возможны при загрузке в обход сервиса
+        Booking earlierEnd = bookingRepository.save(new Booking(null, now.plusDays(5), now.plusDays(6), item,
+                booker, Status.APPROVED, null));
+        summaryUpdater.onApproved(earlierEnd);
+        Long approvedNext = summaryRepository.findById(item.getId()).orElseThrow().getNextBooking().getId();
+        summaryUpdater.rebuild();
+
+        assertEquals(earlierStart.getId(), approvedNext);
+        assertEquals(approvedNext, summaryRepository.findById(item.getId()).orElseThrow().getNextBooking().getId());
+        assertEquals(approvedNext, summaryUpdater.compute(List.of(item.getId()), now).get(item.getId())
+                .getNextBooking().getId());
+    }
+
+    @Test
+    @DirtiesContext
+    public void deleteBookerTest() {
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        User other = userRepository.save(new User(null, "other", "other@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        BookingDto booked = bookingService.create(BookingReqDto.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build(), booker.getId());
+        bookingService.update(booked.getId(), owner.getId(), true);
+        BookingDto otherBooked = bookingService.create(BookingReqDto.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .build(), other.getId());
+        bookingService.update(otherBooked.getId(), owner.getId(), true);
+        assertEquals(booked.getId(), itemService.getById(item.getId(), owner.getId()).getNextBooking().getId());
+
+        userService.delete(booker.getId());
+
+        assertTrue(bookingRepository.findById(booked.getId()).isEmpty());
+        ItemBookingSummary summary = summaryRepository.findAllWithBookingsByItemIdIn(List.of(item.getId())).get(0);
+        assertEquals(otherBooked.getId(), summary.getNextBooking().getId());
+        assertEquals(now.plusDays(3), summary.getNextStart());
+        assertEquals(otherBooked.getId(), itemService.getById(item.getId(), owner.getId()).getNextBooking().getId());
+
+        userService.delete(other.getId());
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getNextStart());
+    }
+}
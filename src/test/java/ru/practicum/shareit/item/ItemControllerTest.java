@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -16,11 +18,20 @@ import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -159,6 +170,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemBookingDto.getAvailable())));
     }
 
+    @Test
+    @SneakyThrows
+    public void getByIdNotModifiedTest() {
+        when(itemService.getETag(1L, 1L)).thenReturn("1.0.0.0");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.0.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0.0.0\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getById(anyLong(), anyLong());
+    }
+
     @Test
     @SneakyThrows
     public void getByUserIdTest() {
@@ -185,10 +211,11 @@ public class ItemControllerTest {
     @Test
     @SneakyThrows
     public void itemSearchTest() {
-        when(itemService.search("name")).thenReturn(List.of(itemDto));
+        when(itemService.search("name", 5, 10)).thenReturn(List.of(itemDto));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
-                        .param("text", "name"))
+                        .param("text", "name")
+                        .param("from", "5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName())))
@@ -196,6 +223,59 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    @SneakyThrows
+    public void itemSearchUnpagedTest() {
+        doAnswer(invocation -> {
+            Consumer<List<ItemDto>> batchConsumer = invocation.getArgument(1);
+            batchConsumer.accept(List.of(itemDto));
+            batchConsumer.accept(List.of(itemDto));
+            return null;
+        }).when(itemService).searchStream(eq("name"), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
+                        .param("text", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(itemDto.getId()), Long.class));
+        verify(itemService, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @SneakyThrows
+    public void itemSearchSizeCappedTest() {
+        when(itemService.search("name", 20, ItemController.MAX_SEARCH_SIZE)).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
+                        .param("text", "name")
+                        .param("from", "20")
+                        .param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void itemSearchStreamTest() {
+        doAnswer(invocation -> {
+            Consumer<List<ItemDto>> batchConsumer = invocation.getArgument(1);
+            batchConsumer.accept(List.of(itemDto, itemDto));
+            return null;
+        }).when(itemService).searchStream(eq("name"), any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
+                        .param("text", "name")
+                        .accept(ItemController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = objectMapper.writeValueAsString(itemDto);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ItemController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
     @Test
     @SneakyThrows
     public void createCommentTest() {
@@ -5,13 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.OffsetPageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -32,7 +36,7 @@ public class ItemRepositoryTest {
     private final Item item = new Item(null, "name", "desc",
             true, owner, request);
     private final Item itemToCheck = new Item(1L, "name", "desc",
-            true, owner, request);
+            true, owner, request, 0L);
 
     @BeforeEach
     public void persistData() {
@@ -80,11 +84,26 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void searchTest() {
-        List<Item> itemsBySearch = itemRepository.search("name");
+    public void getAllByRequestIdIn() {
+        List<Item> itemsByRequests = itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
+
+        assertEquals(1, itemsByRequests.size());
+        assertTrue(itemsByRequests.contains(itemToCheck));
+    }
 
-        assertEquals(1, itemsBySearch.size());
-        assertTrue(itemsBySearch.contains(itemToCheck));
+    @Test
+    public void searchByPatternTest() {
+        itemRepository.save(new Item(null, "50% off", "desc", true, owner, request));
+        itemRepository.save(new Item(null, "hidden name", "desc", false, owner, request));
+
+        assertEquals(List.of(1L), itemRepository.searchByPattern("%am%", PageRequest.of(0, 10)));
+        assertEquals(List.of(1L, 2L), itemRepository.searchByPattern("%es%", PageRequest.of(0, 10)));
+        assertEquals(List.of(2L), itemRepository.searchByPattern("%es%", PageRequest.of(1, 1)));
+        assertEquals(List.of(2L), itemRepository.searchByPattern("%es%", OffsetPageRequest.of(1, 10)));
+        assertEquals(List.of(2L), itemRepository.searchByPattern("%0!%%", PageRequest.of(0, 10)));
+        try (Stream<Long> ids = itemRepository.streamByPattern("%es%")) {
+            assertEquals(List.of(1L, 2L), ids.collect(Collectors.toList()));
+        }
     }
 
 
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Сравнение полного просмотра и trigram-индекса для поиска подстроки на PostgreSQL.
+ * Запуск: mvn test -Dtest=ItemSearchBenchmarkTest -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/shareit
+ * (пользователь и пароль - benchmark.postgres.user / benchmark.postgres.password, по умолчанию shareit).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+public class ItemSearchBenchmarkTest {
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final String[] QUERIES = {"%дрел%", "%item 4242%", "%zzz%"};
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+    private static final String SEARCH = "select id from bench_items " +
+            "where available = true and (lower(name) like ? or lower(description) like ?) " +
+            "order by id limit 10";
+
+    @Test
+    public void substringSearchBenchmark() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("benchmark.postgres.url"),
+                System.getProperty("benchmark.postgres.user", "shareit"),
+                System.getProperty("benchmark.postgres.password", "shareit"))) {
+            execute(connection, "create extension if not exists pg_trgm");
+            for (int size : SIZES) {
+                fill(connection, size);
+                double scan = measure(connection);
+                execute(connection, "create index on bench_items using gin (lower(name) gin_trgm_ops)");
+                execute(connection, "create index on bench_items using gin (lower(description) gin_trgm_ops)");
+                execute(connection, "analyze bench_items");
+                double trigram = measure(connection);
+                log.info("items: {}, scan: {} ms, trigram: {} ms", size,
+                        String.format("%.3f", scan), String.format("%.3f", trigram));
+            }
+            execute(connection, "drop table if exists bench_items");
+        }
+    }
+
+    private void fill(Connection connection, int size) throws SQLException {
+        execute(connection, "drop table if exists bench_items");
+        execute(connection, "create table bench_items (id bigint primary key, name varchar(50) not null, " +
+                "description varchar(255) not null, available boolean not null)");
+        execute(connection, "insert into bench_items " +
+                "select g, 'item ' || g, " +
+                "case when g % 1000 = 0 then 'Аккумуляторная дрель ' else 'Описание вещи ' end || md5(g::text), " +
+                "g % 10 <> 0 " +
+                "from generate_series(1, " + size + ") as g");
+        execute(connection, "analyze bench_items");
+    }
+
+    private double measure(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+            for (int i = 0; i < WARMUP; i++) {
+                runAll(statement);
+            }
+            long started = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                runAll(statement);
+            }
+            return (System.nanoTime() - started) / 1_000_000.0 / RUNS / QUERIES.length;
+        }
+    }
+
+    private void runAll(PreparedStatement statement) throws SQLException {
+        for (String query : QUERIES) {
+            statement.setString(1, query);
+            statement.setString(2, query);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getLong(1);
+                }
+            }
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
@@ -16,13 +18,15 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ItemServiceImplTest {
@@ -39,7 +43,17 @@ public class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
     private ItemMapper itemMapper;
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private final User owner = new User(1L, "owner","owner@email.com");
     private final User requester = new User(2L, "requester","requester@email.com");
@@ -76,7 +90,7 @@ public class ItemServiceImplTest {
 
     @Test
     public void createItemTest() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemMapper.toEntity(any(ItemDto.class))).thenReturn(item);
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(request));
         when(itemRepository.save(any(Item.class))).thenReturn(itemFromRepo);
@@ -97,31 +111,67 @@ public class ItemServiceImplTest {
     @Test
     public void getByIdTest() {
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemMapper.toItemBookingDto(item)).thenReturn(itemBookingDto);
-        when(bookingRepository.findAllByItem_Id(1L)).thenReturn(Collections.emptyList());
-        when(commentRepository.findAllByItem_Id(1L)).thenReturn(Collections.emptyList());
+        when(summaryRepository.findAllWithBookingsByItemIdIn(Set.of(1L))).thenReturn(Collections.emptyList());
+        when(commentRepository.findAllByItem_IdIn(Set.of(1L))).thenReturn(Collections.emptyList());
 
         assertEquals(itemBookingDto, itemService.getById(1L, 1L));
     }
 
     @Test
     public void getByUserIdTest() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(1L)).thenReturn(List.of(item));
         when(itemMapper.toItemBookingDto(item)).thenReturn(itemBookingDto);
-        when(bookingRepository.findAllByItem_Id(1L)).thenReturn(Collections.emptyList());
-        when(commentRepository.findAllByItem_Id(1L)).thenReturn(Collections.emptyList());
+        when(summaryRepository.findAllWithBookingsByItemIdIn(Set.of(1L))).thenReturn(Collections.emptyList());
+        when(commentRepository.findAllByItem_IdIn(Set.of(1L))).thenReturn(Collections.emptyList());
 
         assertEquals(List.of(itemBookingDto), itemService.getByUserId(1L));
     }
 
     @Test
     public void searchTest() {
-        when(itemRepository.search(anyString())).thenReturn(List.of(item));
-        when(itemMapper.toDto(item)).thenReturn(itemDto);
+        when(itemSearchEngine.search("name", 0, 10)).thenReturn(List.of(1L));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(itemFromRepo));
+        when(itemMapper.toDto(itemFromRepo)).thenReturn(itemDto);
+
+        assertEquals(List.of(itemDto), itemService.search("name", 0, 10));
+        assertTrue(itemService.search(" ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchStreamTest() {
+        doAnswer(invocation -> {
+            Consumer<List<Long>> batchConsumer = invocation.getArgument(2);
+            batchConsumer.accept(List.of(1L));
+            batchConsumer.accept(List.of(2L));
+            return null;
+        }).when(itemSearchEngine).searchAll(eq("name"), eq(100), any());
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            verify(itemRepository, never()).findAllById(any());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(itemFromRepo));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of());
+        when(itemMapper.toDto(itemFromRepo)).thenReturn(itemDto);
+
+        List<List<ItemDto>> streamed = new ArrayList<>();
+        itemService.searchStream("name", streamed::add);
+
+        assertEquals(List.of(List.of(itemDto)), streamed);
+        verify(itemSearchEngine, never()).search(anyString(), anyInt(), anyInt());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void getByRequestsTest() {
+        when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(itemFromRepo));
+        when(itemMapper.toDto(itemFromRepo)).thenReturn(itemDto);
 
-        assertTrue(itemService.search("name").contains(itemDto));
+        assertEquals(Map.of(1L, List.of(itemDto), 2L, List.of()), itemService.getByRequests(List.of(1L, 2L)));
     }
 
     @Test
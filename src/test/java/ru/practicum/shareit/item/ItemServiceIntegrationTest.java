@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -14,10 +18,18 @@ import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 public class ItemServiceIntegrationTest {
@@ -32,7 +44,15 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
     @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private ItemBookingSummaryUpdater summaryUpdater;
+    @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
 
     private final User owner = new User(1L, "owner","owner@email.com");
     private final User requester = new User(2L, "requester","requester@email.com");
@@ -67,6 +87,7 @@ public class ItemServiceIntegrationTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
         commentRepository.save(comment);
+        summaryUpdater.rebuild();
 
         ItemDto itemDtoUpdated = ItemDto.builder()
                 .id(1L)
@@ -79,7 +100,76 @@ public class ItemServiceIntegrationTest {
         assertEquals(1L, itemService.getByUserId(1L).get(0).getId());
         assertEquals("updatedName", itemService.update(itemDtoUpdated, 1L).getName());
         assertEquals(1L, itemService.getByRequest(request.getId()).get(0).getId());
-        assertEquals(1L, itemService.search("updated").get(0).getId());
+        assertEquals(1L, itemService.search("updated", 0, 10).get(0).getId());
+        List<ItemDto> streamed = new ArrayList<>();
+        itemService.searchStream("updated", streamed::addAll);
+        assertEquals(List.of(1L), streamed.stream().map(ItemDto::getId).collect(Collectors.toList()));
         assertEquals(1L, itemService.getByRequest(1L).get(0).getId());
     }
+
+    @Test
+    @DirtiesContext
+    public void getETagTest() {
+        userRepository.save(owner);
+        userRepository.save(requester);
+        userRepository.save(booker);
+        itemRequestRepository.save(request);
+        itemRepository.save(item);
+
+        String ownerTag = itemService.getETag(1L, 1L);
+        String bookerTag = itemService.getETag(1L, 3L);
+        assertNotEquals(ownerTag, bookerTag);
+        assertEquals(ownerTag, itemService.getETag(1L, 1L));
+
+        itemService.update(ItemDto.builder().id(1L).name("updatedName").build(), 1L);
+        assertNotEquals(bookerTag, itemService.getETag(1L, 3L));
+        ownerTag = itemService.getETag(1L, 1L);
+        bookerTag = itemService.getETag(1L, 3L);
+
+        bookingRepository.save(booking);
+        summaryUpdater.rebuild();
+        assertEquals(bookerTag, itemService.getETag(1L, 3L));
+        assertNotEquals(ownerTag, itemService.getETag(1L, 1L));
+
+        Comment saved = commentRepository.save(comment);
+        assertNotEquals(bookerTag, itemService.getETag(1L, 3L));
+
+        bookerTag = itemService.getETag(1L, 3L);
+        commentRepository.delete(saved);
+        commentRepository.save(new Comment(null, "other", item, booker, LocalDateTime.now()));
+        assertNotEquals(bookerTag, itemService.getETag(1L, 3L));
+    }
+
+    @Test
+    @DirtiesContext
+    public void secondLevelCacheTest() {
+        userRepository.save(owner);
+        userRepository.save(requester);
+        userRepository.save(booker);
+        itemRequestRepository.save(request);
+        itemRepository.save(item);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        itemService.getByUserId(1L);
+        itemService.getByRequest(1L);
+        long queryHits = statistics.getQueryCacheHitCount();
+        assertEquals("name", itemService.getByUserId(1L).get(0).getName());
+        assertEquals("name", itemService.getByRequest(1L).get(0).getName());
+        assertEquals(queryHits + 2, statistics.getQueryCacheHitCount());
+
+        itemService.update(ItemDto.builder().id(1L).name("updatedName").build(), 1L);
+        assertEquals("updatedName", itemService.getById(1L, 3L).getName());
+        assertEquals("updatedName", itemService.getByUserId(1L).get(0).getName());
+        assertEquals("updatedName", itemService.getByRequest(1L).get(0).getName());
+        assertEquals(queryHits + 2, statistics.getQueryCacheHitCount());
+
+        Item otherItem = itemRepository.save(new Item(null, "other", "desc", true, booker, null));
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, 1L));
+        assertEquals(List.of(1L), itemSearchEngine.search("updatedname", 0, 10));
+        userService.delete(1L);
+        assertTrue(itemSearchEngine.search("updatedname", 0, 10).isEmpty());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, otherItem.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getById(1L, 3L));
+        assertTrue(itemService.getByRequest(1L).isEmpty());
+    }
 }
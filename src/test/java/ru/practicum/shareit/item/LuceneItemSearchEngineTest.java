@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LuceneItemSearchEngineTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private LuceneItemSearchEngine searchEngine;
+
+    private final Item drill = new Item(1L, "Дрель", "Простая дрель", true, null, null);
+    private final Item hammer = new Item(2L, "Молоток", "Молоток для дрели", true, null, null);
+    private final Item saw = new Item(3L, "Пила", "Ручная пила", true, null, null);
+
+    @BeforeEach
+    public void createIndex() throws IOException {
+        when(itemRepository.findAllByAvailableTrue(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(drill, hammer, saw)));
+        searchEngine = new LuceneItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+    }
+
+    @AfterEach
+    public void closeIndex() throws IOException {
+        searchEngine.close();
+    }
+
+    @Test
+    public void searchByPrefixTest() {
+        assertEquals(List.of(1L, 2L), searchEngine.search("ДРЕЛ", 0, 10));
+        assertEquals(List.of(3L), searchEngine.search("пил", 0, 10));
+        assertTrue(searchEngine.search("шуруповерт", 0, 10).isEmpty());
+        assertTrue(searchEngine.search(" ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void removeTest() {
+        searchEngine.remove(1L);
+
+        assertEquals(List.of(2L), searchEngine.search("дрел", 0, 10));
+    }
+
+    @Test
+    public void searchRequiresAllWordsTest() {
+        assertEquals(List.of(2L), searchEngine.search("молоток дрел", 0, 10));
+    }
+
+    @Test
+    public void searchPagingTest() {
+        assertEquals(List.of(1L), searchEngine.search("дрел", 0, 1));
+        assertEquals(List.of(2L), searchEngine.search("дрел", 1, 1));
+        assertTrue(searchEngine.search("дрел", 2, 1).isEmpty());
+        assertEquals(List.of(1L, 2L), searchEngine.search("дрел", 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void searchAllTest() {
+        searchEngine.index(new Item(3L, "Пила", "Пила для дрели", true, null, null));
+        List<List<Long>> batches = new ArrayList<>();
+
+        searchEngine.searchAll("дрел", 2, batches::add);
+        searchEngine.searchAll(" ", 2, batches::add);
+
+        assertEquals(List.of(searchEngine.search("дрел", 0, 2), searchEngine.search("дрел", 2, 2)), batches);
+        assertEquals(3, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void indexUpdatesAndRemovesUnavailableTest() {
+        searchEngine.index(new Item(3L, "Пила", "Пила для дрели", true, null, null));
+        assertEquals(List.of(1L, 2L, 3L), searchEngine.search("дрел", 0, 10));
+
+        searchEngine.index(new Item(1L, "Дрель", "Простая дрель", false, null, null));
+        assertEquals(List.of(2L, 3L), searchEngine.search("дрел", 0, 10));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.OffsetPageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubstringItemSearchEngineTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SubstringItemSearchEngine searchEngine = new SubstringItemSearchEngine(itemRepository);
+
+    @Test
+    public void searchEscapesPatternTest() {
+        when(itemRepository.searchByPattern("%дрел%", OffsetPageRequest.of(25, 10))).thenReturn(List.of(1L));
+        when(itemRepository.searchByPattern("%50!% !_!!%", OffsetPageRequest.of(0, 10))).thenReturn(List.of(2L));
+
+        assertEquals(List.of(1L), searchEngine.search("ДРЕЛ", 25, 10));
+        assertEquals(List.of(2L), searchEngine.search("50% _!", 0, 10));
+    }
+
+    @Test
+    public void searchAllBatchesSingleStreamTest() {
+        when(itemRepository.streamByPattern("%дрел%")).thenReturn(Stream.of(1L, 2L, 3L));
+        List<List<Long>> batches = new ArrayList<>();
+
+        searchEngine.searchAll("дрел", 2, batches::add);
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), batches);
+    }
+}
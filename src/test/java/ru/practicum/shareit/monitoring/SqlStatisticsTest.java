@@ -0,0 +1,42 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql.debug-headers=true")
+@AutoConfigureMockMvc
+public class SqlStatisticsTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DirtiesContext
+    public void debugHeadersTest() throws Exception {
+        userRepository.save(new User(null, "user", "user@email.com"));
+
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsHeaderAdvice.COUNT_HEADER, "1"))
+                .andExpect(header().exists(SqlStatisticsHeaderAdvice.TIME_HEADER));
+
+        mvc.perform(get("/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(get("/users/1000"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(SqlStatisticsHeaderAdvice.COUNT_HEADER, "1"));
+    }
+}
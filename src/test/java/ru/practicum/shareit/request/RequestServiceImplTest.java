@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -60,7 +61,7 @@ public class RequestServiceImplTest {
     @Test
     public void createItemRequestTest() {
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requester));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(mapper.toEntity(any(ItemRequestDto.class))).thenReturn(itemRequest);
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
         when(mapper.toDto(any(ItemRequest.class))).thenReturn(itemRequestDto);
@@ -70,14 +71,14 @@ public class RequestServiceImplTest {
 
     @Test
     public void createItemRequestFailByUnknownUserTest() {
-        when(userRepository.findById(anyLong())).thenThrow(NotFoundException.class);
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemRequestService.create(itemRequestDto, testTime, 1L));
     }
 
     @Test
     public void getByIdTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requester));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         when(mapper.toRespDto(itemRequest)).thenReturn(itemRequestRespDto);
         when(itemService.getByRequest(anyLong())).thenReturn(List.of());
@@ -87,11 +88,11 @@ public class RequestServiceImplTest {
 
     @Test
     public void getAllTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requester));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findAllByUserIdNotOrderByCreatedDesc(anyLong(), any()))
                 .thenReturn(List.of(itemRequest));
         when(mapper.toRespDto(itemRequest)).thenReturn(itemRequestRespDto);
-        when(itemService.getByRequest(anyLong())).thenReturn(List.of());
+        when(itemService.getByRequests(List.of(1L))).thenReturn(Map.of(1L, List.of()));
 
         List<ItemRequestRespDto> requestRespDtoList = itemRequestService.getAll(1L, 0, 10);
 
@@ -101,11 +102,11 @@ public class RequestServiceImplTest {
 
     @Test
     public void getAllByRequester() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requester));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findAllByUserIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(itemRequest));
         when(mapper.toRespDto(itemRequest)).thenReturn(itemRequestRespDto);
-        when(itemService.getByRequest(anyLong())).thenReturn(List.of());
+        when(itemService.getByRequests(List.of(1L))).thenReturn(Map.of(1L, List.of()));
 
         List<ItemRequestRespDto> requestRespDtoList = itemRequestService.getAllByRequester(1L);
 
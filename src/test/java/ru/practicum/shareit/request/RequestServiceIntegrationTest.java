@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
 import ru.practicum.shareit.user.User;
@@ -20,6 +23,10 @@ public class RequestServiceIntegrationTest {
     private ItemRequestServiceImpl itemRequestService;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
 
     private final LocalDateTime testTime = LocalDateTime.now().withNano(0);
     private final User requester = new User(1L, "requester","requester@email.com");
@@ -59,4 +66,44 @@ public class RequestServiceIntegrationTest {
 
         assertEquals(0, itemDtoListAllEmpty.size());
     }
+
+    @Test
+    @DirtiesContext
+    public void getETagTest() {
+        userRepository.save(requester);
+        userRepository.save(randomUser);
+        itemRequestService.create(itemRequestDto, testTime, 1L);
+
+        String tag = itemRequestService.getETag(2L, 1L);
+        assertEquals(tag, itemRequestService.getETag(1L, 1L));
+
+        ItemDto itemDto = itemService.create(ItemDto.builder()
+                .name("name")
+                .description("desc")
+                .available(true)
+                .requestId(1L)
+                .build(), 2L);
+        String withItemTag = itemRequestService.getETag(2L, 1L);
+        assertNotEquals(tag, withItemTag);
+
+        itemDto.setAvailable(false);
+        itemService.update(itemDto, 2L);
+        assertNotEquals(withItemTag, itemRequestService.getETag(2L, 1L));
+
+        ItemDto first = itemService.create(ItemDto.builder()
+                .name("first")
+                .description("desc")
+                .available(true)
+                .requestId(1L)
+                .build(), 2L);
+        String withFirstTag = itemRequestService.getETag(2L, 1L);
+        itemRepository.deleteById(first.getId());
+        itemService.create(ItemDto.builder()
+                .name("second")
+                .description("desc")
+                .available(true)
+                .requestId(1L)
+                .build(), 2L);
+        assertNotEquals(withFirstTag, itemRequestService.getETag(2L, 1L));
+    }
 }
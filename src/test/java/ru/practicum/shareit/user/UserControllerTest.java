@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -122,6 +123,21 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDtoExpected.getEmail())));
     }
 
+    @Test
+    @SneakyThrows
+    public void updateUserConflict() {
+        when(userService.update(any(UserDto.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserDto.builder().name("updateName").build())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Данные изменены параллельным запросом, повторите запрос")));
+    }
+
     @Test
     @SneakyThrows
     public void getById() {
@@ -42,6 +42,7 @@ public class UserRepositoryTest {
                 .id(1L)
                 .name("name")
                 .email("email@email.com")
+                .version(0L)
                 .build();
 
         List<User> userAll = userRepository.findAll();
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,6 +21,12 @@ import static org.junit.jupiter.api.Assertions.*;
 public class UserServiceIntegrationTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private final UserDto userDto1 = UserDto.builder()
             .id(1L)
@@ -75,4 +87,49 @@ public class UserServiceIntegrationTest {
         assertTrue(allUsers.contains(userDto2Resp));
         assertTrue(allUsers.contains(userDto3Updated));
     }
+
+    @Test
+    @DirtiesContext
+    public void userCacheTest() {
+        UserDto user = userService.create(userDto2);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getDomainDataRegionStatistics(User.class.getName()).getHitCount();
+        long queries = statistics.getPrepareStatementCount();
+
+        itemRequestService.getAllByRequester(user.getId());
+        itemRequestService.getAllByRequester(user.getId());
+
+        assertEquals(hits + 2, statistics.getDomainDataRegionStatistics(User.class.getName()).getHitCount());
+        assertEquals(queries + 2, statistics.getPrepareStatementCount());
+
+        userService.delete(user.getId());
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.getAllByRequester(user.getId()));
+    }
+
+    @Test
+    @DirtiesContext
+    public void secondLevelCacheTest() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Cache cache = entityManagerFactory.getCache();
+        UserDto user = userService.create(userDto2);
+        assertTrue(cache.contains(User.class, user.getId()));
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        assertEquals(user, userService.getById(user.getId()));
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", User.class.getName())
+                .tag("result", "hit")
+                .functionCounter().count() > 0);
+
+        UserDto updated = userService.update(UserDto.builder().id(user.getId()).name("updated").build());
+        assertEquals("updated", updated.getName());
+        hits = statistics.getSecondLevelCacheHitCount();
+        assertEquals(updated, userService.getById(user.getId()));
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+
+        userService.delete(user.getId());
+        assertThrows(NotFoundException.class, () -> userService.getById(user.getId()));
+    }
 }